@@ -0,0 +1,38 @@
+package com.github.jep42.easycsvmap.benchmarks;
+
+import java.io.File;
+
+import com.github.jep42.easycsvmap.EasyCSVMap;
+import com.github.jep42.easycsvmap.core.CSVContext;
+
+final class BenchmarkSupport {
+
+    /**
+     * Default number of data rows of the generated files.
+     */
+    static final String DEFAULT_ROWS = "100000";
+
+    private BenchmarkSupport() {
+        super();
+    }
+
+    static EasyCSVMap parse(File csvFile, String engine) {
+        return parse(csvFile, engine, false);
+    }
+
+    static EasyCSVMap parse(File csvFile, String engine, boolean incrementalSave) {
+        CSVContext csvContext = new CSVContext(0);
+        csvContext.setEngine(engine);
+        csvContext.setIncrementalSave(incrementalSave);
+        EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+        csvMap.parseCsvFromFile(csvFile.getAbsolutePath());
+        return csvMap;
+    }
+
+    static void delete(File file) {
+        if (file != null && file.exists()) {
+            file.delete();
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.github.jep42.easycsvmap.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.ByteOrderMark;
+
+/**
+ * Shapes of the synthetic CSV files used by the benchmarks. All files have a header row (row index 0) with the columns col0, col1, ...
+ * <ul>
+ * <li>col0: the row number, i.e. unique values</li>
+ * <li>col1: name0 .. name999</li>
+ * <li>col2: city0 .. city99</li>
+ * <li>all other columns: values unique per row and column</li>
+ * </ul>
+ */
+public enum CsvShape {
+
+    /** 5 plain columns */
+    NARROW(5, false, false),
+
+    /** 50 plain columns */
+    WIDE(50, false, false),
+
+    /** 5 quoted columns containing separators, doubled quotes and line breaks */
+    QUOTED(5, true, false),
+
+    /** 5 plain columns with non-ASCII values in UTF-8 with byte order mark */
+    BOM(5, false, true);
+
+    private static final char SEPARATOR = ';';
+
+    private static final String LINE_END = "\n";
+
+    private final int numberOfColumns;
+
+    private final boolean quoted;
+
+    private final boolean bom;
+
+    CsvShape(int numberOfColumns, boolean quoted, boolean bom) {
+        this.numberOfColumns = numberOfColumns;
+        this.quoted = quoted;
+        this.bom = bom;
+    }
+
+    /**
+     * Writes a new temporary CSV file of this shape.
+     *
+     * @param numberOfRows the number of data rows (without the header row)
+     * @return the new file, the caller is responsible for deleting it
+     * @throws IOException
+     */
+    public File createFile(int numberOfRows) throws IOException {
+        File csvFile = File.createTempFile("easycsvmap-" + this.name().toLowerCase(), ".csv");
+        try (OutputStream output = Files.newOutputStream(csvFile.toPath());
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16)) {
+            if (this.bom) {
+                output.write(ByteOrderMark.UTF_8.getBytes());
+            }
+            for (int col = 0; col < this.numberOfColumns; col++) {
+                writer.write(col == 0 ? "col0" : SEPARATOR + "col" + col);
+            }
+            writer.write(LINE_END);
+            for (int row = 0; row < numberOfRows; row++) {
+                for (int col = 0; col < this.numberOfColumns; col++) {
+                    if (col > 0) {
+                        writer.write(SEPARATOR);
+                    }
+                    writer.write(this.format(this.value(row, col), row));
+                }
+                writer.write(LINE_END);
+            }
+        }
+        return csvFile;
+    }
+
+    private String value(int row, int col) {
+        switch (col) {
+        case 0:
+            return Integer.toString(row);
+        case 1:
+            return "name" + row % 1000;
+        case 2:
+            return "city" + row % 100;
+        default:
+            return (this.bom ? "wert-äöü-" : "value-") + row + "-" + col;
+        }
+    }
+
+    private String format(String value, int row) {
+        if (!this.quoted) {
+            return value;
+        }
+        String quotedValue = row % 10 == 0 ? value + "; \"\"quoted\"\"\nsecond line" : value;
+        return "\"" + quotedValue + "\"";
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.github.jep42.easycsvmap.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jep42.easycsvmap.EasyCSVMap;
+import com.github.jep42.easycsvmap.core.CSVContext;
+
+/**
+ * Parsing of CSV files of all shapes with all built-in engines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param
+    private CsvShape shape;
+
+    @Param({ CSVContext.ENGINE_OPENCSV, CSVContext.ENGINE_MAPPED })
+    private String engine;
+
+    @Param(BenchmarkSupport.DEFAULT_ROWS)
+    private int rows;
+
+    private File csvFile;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        this.csvFile = this.shape.createFile(this.rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() {
+        BenchmarkSupport.delete(this.csvFile);
+    }
+
+    @Benchmark
+    public EasyCSVMap parseCsvFromFile() {
+        return BenchmarkSupport.parse(this.csvFile, this.engine);
+    }
+
+}
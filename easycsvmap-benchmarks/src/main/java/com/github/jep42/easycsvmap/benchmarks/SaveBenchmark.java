@@ -0,0 +1,72 @@
+package com.github.jep42.easycsvmap.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jep42.easycsvmap.EasyCSVMap;
+import com.github.jep42.easycsvmap.core.CSVContext;
+
+/**
+ * Writing a parsed CSV with a few changed values to a new file, either completely or incrementally.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SaveBenchmark {
+
+    @Param({ "NARROW", "WIDE" })
+    private CsvShape shape;
+
+    @Param({ CSVContext.ENGINE_OPENCSV, CSVContext.ENGINE_MAPPED })
+    private String engine;
+
+    @Param(BenchmarkSupport.DEFAULT_ROWS)
+    private int rows;
+
+    @Param({ "false", "true" })
+    private boolean incrementalSave;
+
+    private File csvFile;
+
+    private File targetFile;
+
+    private EasyCSVMap csvMap;
+
+    @Setup(Level.Trial)
+    public void parse() throws IOException {
+        this.csvFile = this.shape.createFile(this.rows);
+        this.targetFile = File.createTempFile("easycsvmap-save", ".csv");
+        this.csvMap = BenchmarkSupport.parse(this.csvFile, this.engine, this.incrementalSave);
+        this.csvMap.setValues("[col2=^city42$].col1", "changed");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() {
+        BenchmarkSupport.delete(this.csvFile);
+        BenchmarkSupport.delete(this.targetFile);
+    }
+
+    @Benchmark
+    public void saveToFile() {
+        this.csvMap.saveToFile(this.targetFile.getAbsolutePath());
+    }
+
+}
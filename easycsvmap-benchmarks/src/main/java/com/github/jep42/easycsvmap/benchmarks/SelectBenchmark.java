@@ -0,0 +1,88 @@
+package com.github.jep42.easycsvmap.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jep42.easycsvmap.EasyCSVMap;
+import com.github.jep42.easycsvmap.core.CSVContext;
+
+/**
+ * Reading values via row index and regular expression selectors. Column indexes used by regular expression selectors are built on the
+ * first call, hence the results show the steady state of repeated lookups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SelectBenchmark {
+
+    @Param({ CSVContext.ENGINE_OPENCSV, CSVContext.ENGINE_MAPPED })
+    private String engine;
+
+    @Param(BenchmarkSupport.DEFAULT_ROWS)
+    private int rows;
+
+    private File csvFile;
+
+    private EasyCSVMap csvMap;
+
+    @Setup(Level.Trial)
+    public void parse() throws IOException {
+        this.csvFile = CsvShape.NARROW.createFile(this.rows);
+        this.csvMap = BenchmarkSupport.parse(this.csvFile, this.engine);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() {
+        BenchmarkSupport.delete(this.csvFile);
+    }
+
+    @Benchmark
+    public Map<Integer, String> rowIndex() {
+        return this.csvMap.getValues("{" + this.rows / 2 + "}.col1");
+    }
+
+    @Benchmark
+    public Map<Integer, String> rowIndexRange() {
+        return this.csvMap.getValues("{1000-1999}.col1");
+    }
+
+    @Benchmark
+    public Map<Integer, String> regExpLiteral() {
+        return this.csvMap.getValues("[col2=^city42$].col1");
+    }
+
+    @Benchmark
+    public Map<Integer, String> regExpPrefix() {
+        return this.csvMap.getValues("[col1=^name99.*$].col0");
+    }
+
+    @Benchmark
+    public Map<Integer, String> regExpFullScan() {
+        return this.csvMap.getValues("[col1=.*99$].col0");
+    }
+
+    @Benchmark
+    public String regExpFirstMatch() {
+        return this.csvMap.getFirstValue("[col1=.*99$].col0");
+    }
+
+}
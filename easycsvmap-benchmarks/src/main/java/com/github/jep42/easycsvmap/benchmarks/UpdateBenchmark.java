@@ -0,0 +1,78 @@
+package com.github.jep42.easycsvmap.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jep42.easycsvmap.EasyCSVMap;
+import com.github.jep42.easycsvmap.core.CSVContext;
+
+/**
+ * Changing values via selectors and appending rows. The CSV is parsed again for each iteration, so that appended rows do not pile up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class UpdateBenchmark {
+
+    @Param({ CSVContext.ENGINE_OPENCSV, CSVContext.ENGINE_MAPPED })
+    private String engine;
+
+    @Param(BenchmarkSupport.DEFAULT_ROWS)
+    private int rows;
+
+    private File csvFile;
+
+    private EasyCSVMap csvMap;
+
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        this.csvFile = CsvShape.NARROW.createFile(this.rows);
+    }
+
+    @Setup(Level.Iteration)
+    public void parse() {
+        this.csvMap = BenchmarkSupport.parse(this.csvFile, this.engine);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() {
+        BenchmarkSupport.delete(this.csvFile);
+    }
+
+    @Benchmark
+    public void setValuesRowIndex() {
+        this.csvMap.setValues("{" + this.rows / 2 + "}.col3", Integer.toString(this.counter++));
+    }
+
+    @Benchmark
+    public void setValuesRegExp() {
+        this.csvMap.setValues("[col2=^city42$].col3", Integer.toString(this.counter++));
+    }
+
+    @Benchmark
+    public void addRow() {
+        String id = Integer.toString(this.counter++);
+        this.csvMap.addRow(id, "name" + id, "city" + id, "value3", "value4");
+    }
+
+}
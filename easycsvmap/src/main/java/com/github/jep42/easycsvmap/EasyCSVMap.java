@@ -2,25 +2,35 @@ package com.github.jep42.easycsvmap;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
 
+import org.apache.commons.io.ByteOrderMark;
+
 import com.github.jep42.easycsvmap.core.CSVContext;
 import com.github.jep42.easycsvmap.core.CSVMapException;
 import com.github.jep42.easycsvmap.csv.CSVFileFactory;
 import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
 import com.github.jep42.easycsvmap.csv.api.CSVFileWriter;
+import com.github.jep42.easycsvmap.csv.api.CSVRecord;
 import com.github.jep42.easycsvmap.selector.CSVSelectorFactory;
 import com.github.jep42.easycsvmap.selector.api.CSVSelector;
+import com.github.jep42.easycsvmap.store.CSVRowStore;
 import com.github.jep42.easycsvmap.util.CSVMapUtil;
+import com.github.jep42.easycsvmap.util.FileUtil;
 
 /**
  * EasyCSVMap allows parsing CSV files and accessing elements via name and/or index.
@@ -31,12 +41,40 @@ public class EasyCSVMap {
 
     private CSVContext csvContext;
 
-    private LinkedList<String> headerRow;
-
-    private List<Map<String, String>> csvMap = new ArrayList<>();
+    private CSVRowStore rowStore = new CSVRowStore(new String[0]);
 
+    /*
+     * the reader is kept while parsing only, afterwards just the byte order mark of the file is needed to write it back
+     */
     private CSVFileReader reader;
 
+    private ByteOrderMark bom;
+
+    private File csvFile;
+
+    /*
+     * size of the CSV file when it was parsed, i.e. the end of the last row read from the file
+     */
+    private long parsedFileSize;
+
+    /*
+     * the byte ranges known by the rows refer to the parsed file, they do not match the file anymore once it was replaced by a saved one
+     */
+    private boolean parsedBytesAvailable;
+
+    /*
+     * size and modification time of the CSV file when it was parsed or saved last, rows are copied from the file or appended to the file
+     * only if it wasn't changed by others since
+     */
+    private long csvFileSize;
+
+    private long csvFileLastModified;
+
+    /*
+     * number of rows contained in the CSV file, rows behind are added rows
+     */
+    private int numberOfSavedRows;
+
     /**
      * Creates EasyCSVMap object.
      * By specifying a header row via its row index, it is possible to access columns of the CSV format by its column name.
@@ -66,6 +104,45 @@ public class EasyCSVMap {
         this.csvContext = csvContext;
     }
 
+    /**
+     * Creates a copy of the CSV including its format settings. The copy is created in constant time as it shares the rows with this CSV;
+     * a row is copied by the CSV which changes it first, so changes of either CSV are not visible to the other one. Copying is synchronized
+     * with changes of the rows, so the CSV may be copied while other threads use it.
+     *
+     * @return the copy
+     */
+    public EasyCSVMap copy() {
+        return this.copy(new CSVContext(this.csvContext));
+    }
+
+    /**
+     * Creates a copy with the given format settings, which shares the rows with this CSV until either of both changes them (see
+     * {@link CSVRowStore#copy()}). The copy remembers the parsed file just like this CSV, e.g. for incremental saving.
+     *
+     * @param csvContext the format settings of the copy
+     * @return the copy
+     */
+    EasyCSVMap copy(CSVContext csvContext) {
+        EasyCSVMap copy = new EasyCSVMap(csvContext);
+        copy.rowStore = this.rowStore.copy();
+        copy.bom = this.bom;
+        copy.csvFile = this.csvFile;
+        copy.parsedFileSize = this.parsedFileSize;
+        copy.parsedBytesAvailable = this.parsedBytesAvailable;
+        copy.csvFileSize = this.csvFileSize;
+        copy.csvFileLastModified = this.csvFileLastModified;
+        copy.numberOfSavedRows = this.numberOfSavedRows;
+        return copy;
+    }
+
+    /**
+     * @return <code>true</code> if rows are still decoded from the parsed file on access, e.g. by the {@link CSVContext#ENGINE_MAPPED}
+     *         engine
+     */
+    boolean isBackedBySourceFile() {
+        return this.rowStore.hasRowsDecodedOnAccess();
+    }
+
     /**
      * Parses the given CSV file
      *
@@ -74,14 +151,22 @@ public class EasyCSVMap {
      */
     public List<Map<String, String>> parseCsvFromFile(String csvFilePath) {
         try {
-            this.reader = this.getReader(new File(csvFilePath));
+            this.csvFile = new File(csvFilePath);
+            this.parsedFileSize = this.csvFile.length();
+            this.parsedBytesAvailable = true;
+            this.rememberFileState();
+            this.reader = this.getReader(this.csvFile);
+            this.bom = this.reader.getBom();
 
-            return this.parseCsv();
+            List<Map<String, String>> rows = this.parseCsv();
+            this.numberOfSavedRows = this.rowStore.getNumberOfRows();
+            return rows;
 
         } catch (IOException e) {
             throw new CSVMapException(String.format(UNEXPECTED_EXCEPTION_MESSAGE, e.getMessage()), e);
         } finally {
             this.closeCSVReader(this.reader);
+            this.reader = null;
         }
     }
 
@@ -91,129 +176,111 @@ public class EasyCSVMap {
      * @return the parsed CSV
      */
     public List<Map<String, String>> parseCsv() {
-
-        // find the header row or create a pseudo header row
-        this.findHeaderRow();
-
-        // parse rows and put values into internal map
-        return this.processRows();
-    }
-
-    private void findHeaderRow() {
         try {
-            String[] nextRow;
+            // the CSV is read in a single pass: rows in front of the header row are buffered until the header row was found (or a pseudo
+            // header row was created), afterwards all rows are processed directly
+            List<CSVRecord> rowsBeforeHeaderRow = new ArrayList<>();
+            boolean headerRowFound = false;
+            CSVRecord nextRow;
             int rowIndex = 0;
-            this.reader.resetReader();
-            
-            while ((nextRow = this.reader.readNextLine()) != null) {
-                if (this.processHeaderRow(nextRow, rowIndex++)) {
 
-                    break;
+            while ((nextRow = this.reader.readNextRecord()) != null) {
+                if (!headerRowFound) {
+                    if (!this.processHeaderRow(nextRow, rowIndex++)) {
+                        rowsBeforeHeaderRow.add(nextRow);
+                        continue;
+                    }
+                    headerRowFound = true;
+                    this.processRows(rowsBeforeHeaderRow);
+                    rowsBeforeHeaderRow = null;
                 }
+                this.processRow(nextRow);
             }
 
-            this.validateHeaderRow();
+            if (!headerRowFound) {
+                throw new CSVMapException("Failed to find the header row. Please check the specified header row index, maybe it does not exist in the given CSV format...");
+            }
         } catch (IOException e) {
             throw new CSVMapException(String.format(UNEXPECTED_EXCEPTION_MESSAGE, e.getMessage()), e);
         }
-    }
 
-    private void validateHeaderRow() {
-        // check if header row exists...
-        if (this.headerRow == null) {
-            throw new CSVMapException("Failed to find the header row. Please check the specified header row index, maybe it does not exist in the given CSV format...");
-        }
+        return this.rowStore.asMapList();
+    }
 
+    private void validateHeaderRow(String[] headerRow) {
         // check for duplicate header columns:
-        if (this.headerRowContainsDuplicates()) {
+        if (this.headerRowContainsDuplicates(headerRow)) {
             throw new CSVMapException("The given header row is invalid as it contains duplicate column names");
         }
     }
 
-    private boolean headerRowContainsDuplicates() {
-        Set<String> colSet = new HashSet<>(this.headerRow);
-        return this.headerRow.size() != colSet.size();
+    private boolean headerRowContainsDuplicates(String[] headerRow) {
+        Set<String> colSet = new HashSet<>(Arrays.asList(headerRow));
+        return headerRow.length != colSet.size();
     }
 
     private CSVFileReader getReader(File csvFile) throws IOException {
-        return CSVFileFactory.getReader(csvFile, this.csvContext.getColumnSeparator(),
-                this.csvContext.getQuoteCharacter());
+        return CSVFileFactory.getReader(csvFile, this.csvContext);
     }
 
-    private boolean processHeaderRow(String[] csvRow, int rowIndex) {
+    private boolean processHeaderRow(CSVRecord csvRow, int rowIndex) {
         if (csvContext.hasHeaderRow()) {
             if (rowIndex == this.csvContext.getHeaderRowIndex()) {
-                this.headerRow = this.asLinkedList(csvRow);
+                String[] headerRow = csvRow.toArray();
+                this.validateHeaderRow(headerRow);
+                this.rowStore = new CSVRowStore(headerRow);
                 return true;
             }
         } else {
-            this.headerRow = this.createStandardHeaderRow(csvRow.length);
+            this.rowStore = new CSVRowStore(this.createStandardHeaderRow(csvRow.size()));
             return true;
         }
         return false;
     }
 
-    private LinkedList<String> asLinkedList(String[] csvRow) {
-        LinkedList<String> l = new LinkedList<>();
-        for (String v : csvRow) {
-            l.add(v);
+    private void processRows(List<CSVRecord> rows) {
+        for (CSVRecord row : rows) {
+            this.processRow(row);
         }
-        return l;
     }
 
-    private List<Map<String, String>> processRows() {
-        try {
-            String[] nextRow;
-            this.reader.resetReader();
-            while ((nextRow = this.reader.readNextLine()) != null) {
-                // don't mind about empty lines, ignore them silently...
-                if (this.isEmptyLine(nextRow)) {
-                    continue;
-                }
-                this.processDataRow(nextRow);
-            }
-        } catch (IOException e) {
-            throw new CSVMapException(String.format(UNEXPECTED_EXCEPTION_MESSAGE, e.getMessage()), e);
-        }
+    private void processRow(CSVRecord row) {
+        // don't mind about empty lines, ignore them silently...
+        if (!this.isEmptyLine(row)) {
+            this.validateDataRow(row.size());
 
-        return this.csvMap;
+            this.rowStore.addRow(row);
+        }
     }
 
-    private boolean isEmptyLine(String[] row) {
+    private boolean isEmptyLine(CSVRecord row) {
 		//for an empty line the OpenCSV reader returns an array with one empty element
-		return row.length == 1 && CSVMapUtil.isEmpty(row[0]);
+		return row.size() == 1 && CSVMapUtil.isEmpty(row.get(0));
 	}
 
 	private void processDataRow(String[] csvRow) {
 
-        this.validateDataRow(csvRow);
-
-        Map<String, String> dataRow = new LinkedHashMap<>();
-        int rowIndex = 0;
-        for (String value : csvRow) {
-            dataRow.put(this.headerRow.get(rowIndex++), value);
-        }
+        this.validateDataRow(csvRow.length);
 
-        this.csvMap.add(dataRow);
+        this.rowStore.addRow(csvRow);
     }
 
     /**
      * A row is considered to be invalid if the number of columns differs from the number of columns of the header row
      *
-     * @param csvRow
+     * @param numberOfValues the number of values of the data row
      * @throws CSVMapException Thrown if the number of elements in the given array does not match the number of header rows
      */
-    private void validateDataRow(String[] csvRow) {
-        if (csvRow.length != this.headerRow.size()) {
-            throw new CSVMapException("Number of elements of data row (" + csvRow.length + ") does not match the number of header columns (" + this.headerRow.size() + ").");
+    private void validateDataRow(int numberOfValues) {
+        if (numberOfValues != this.rowStore.getNumberOfColumns()) {
+            throw new CSVMapException("Number of elements of data row (" + numberOfValues + ") does not match the number of header columns (" + this.rowStore.getNumberOfColumns() + ").");
         }
     }
 
-    private LinkedList<String> createStandardHeaderRow(int numberOfColumns) {
-        LinkedList<String> standardHeaderRow = new LinkedList<>();
-        int colIndex = 0;
-        while (colIndex < numberOfColumns) {
-            standardHeaderRow.add(Integer.toString(colIndex++));
+    private String[] createStandardHeaderRow(int numberOfColumns) {
+        String[] standardHeaderRow = new String[numberOfColumns];
+        for (int colIndex = 0; colIndex < numberOfColumns; colIndex++) {
+            standardHeaderRow[colIndex] = Integer.toString(colIndex);
         }
 
         return standardHeaderRow;
@@ -234,13 +301,40 @@ public class EasyCSVMap {
      * When using regular expressions as row specification it is possible that it matches more than just one row. hence, the method may return more then just one value.
      *
      * @param csvPath
-     * @return Map where the row index is used as Map-key and the cells value as Map-value
+     * @return read-only Map where the row index is used as Map-key and the cells value as Map-value, ordered by row index
      */
     @Nonnull
     public Map<Integer, String> getValues(String csvSelectorString) {
-        CSVSelector csvSelector = CSVSelectorFactory.getCSVSelector(csvSelectorString, this.csvMap, this.csvContext);
+        CSVSelector csvSelector = CSVSelectorFactory.getCSVSelector(csvSelectorString);
 
-        return csvSelector.getValues();
+        return csvSelector.getValues(this.rowStore);
+    }
+
+    /**
+     * Same as {@link EasyCSVMap#getValues(String)}, but stops evaluating the selector expression as soon as the given number of rows
+     * matched. This is considerably faster if a regular expression matches in the first rows of a large CSV.
+     *
+     * @param csvSelectorString
+     * @param maxRows the maximum number of rows to select
+     * @return read-only Map with the values of the first matching rows, ordered by row index
+     */
+    @Nonnull
+    public Map<Integer, String> getFirstValues(String csvSelectorString, int maxRows) {
+        CSVSelector csvSelector = CSVSelectorFactory.getCSVSelector(csvSelectorString);
+
+        return csvSelector.getFirstValues(this.rowStore, maxRows);
+    }
+
+    /**
+     * Convenient method to get the value of the first cell matching the given selector expression, see {@link EasyCSVMap#getValues(String)}.
+     * The rows behind the first matching row are not evaluated at all.
+     *
+     * @param csvSelectorString
+     * @return the value of the first matching row or <code>null</code> if no row matches
+     */
+    public String getFirstValue(String csvSelectorString) {
+        Iterator<String> values = this.getFirstValues(csvSelectorString, 1).values().iterator();
+        return values.hasNext() ? values.next() : null;
     }
 
     /**
@@ -251,9 +345,86 @@ public class EasyCSVMap {
      * @param csvPath
      */
     public void setValues(String csvSelectorString, String value) {
-        CSVSelector csvSelector = CSVSelectorFactory.getCSVSelector(csvSelectorString, this.csvMap, this.csvContext);
+        CSVSelector csvSelector = CSVSelectorFactory.getCSVSelector(csvSelectorString);
+
+        csvSelector.setValues(this.rowStore, this.csvContext, value);
+    }
+
+    /**
+     * Counts the cells matching the given selector expression, see {@link EasyCSVMap#getValues(String)}. In contrast to retrieving the
+     * values, counting does not create a result per matching row.
+     *
+     * @param csvSelectorString
+     * @return the number of matching cells
+     */
+    public int count(String csvSelectorString) {
+        CSVSelector csvSelector = CSVSelectorFactory.getCSVSelector(csvSelectorString);
+
+        return csvSelector.count(this.rowStore);
+    }
+
+    /**
+     * Checks if at least one cell matches the given selector expression, see {@link EasyCSVMap#getValues(String)}. The rows behind the
+     * first matching row are not evaluated at all.
+     *
+     * @param csvSelectorString
+     * @return <code>true</code> if at least one cell matches
+     */
+    public boolean exists(String csvSelectorString) {
+        CSVSelector csvSelector = CSVSelectorFactory.getCSVSelector(csvSelectorString);
+
+        return csvSelector.exists(this.rowStore);
+    }
+
+    /**
+     * Evaluates several selector expressions at once, see {@link EasyCSVMap#getValues(String)}. The rows are selected only once for all
+     * selectors with the same row specification, e.g. <b>[id=^4711$].name</b> and <b>[id=^4711$].city</b>.
+     *
+     * @param csvSelectorStrings
+     * @return the results of the selectors in the order of the given selectors
+     */
+    @Nonnull
+    public List<Map<Integer, String>> getValues(List<String> csvSelectorStrings) {
+        return this.getFirstValues(csvSelectorStrings, CSVSelector.ALL_ROWS);
+    }
 
-        csvSelector.setValues(value);
+    /**
+     * Evaluates several selector expressions at once like {@link EasyCSVMap#getValues(List)}, but stops evaluating a row specification as
+     * soon as the given number of rows matched, see {@link EasyCSVMap#getFirstValues(String, int)}.
+     *
+     * @param csvSelectorStrings
+     * @param maxRows the maximum number of rows to select per selector
+     * @return the results of the selectors in the order of the given selectors
+     */
+    @Nonnull
+    public List<Map<Integer, String>> getFirstValues(List<String> csvSelectorStrings, int maxRows) {
+        List<Map<Integer, String>> results = new ArrayList<>(csvSelectorStrings.size());
+        Map<String, int[]> selectedRowsByRowSpec = new HashMap<>();
+        for (String csvSelectorString : csvSelectorStrings) {
+            CSVSelector csvSelector = CSVSelectorFactory.getCSVSelector(csvSelectorString);
+            int[] selectedRows = selectedRowsByRowSpec.computeIfAbsent(csvSelector.getRowSpec(),
+                    rowSpec -> csvSelector.getSelectedRows(this.rowStore, maxRows));
+            results.add(csvSelector.getValues(this.rowStore, selectedRows));
+        }
+        return results;
+    }
+
+    /**
+     * Sets the values of several selector expressions at once, see {@link EasyCSVMap#setValues(String, String)}. The values are set in
+     * the given order, so a selector sees the values set for the preceding selectors.
+     *
+     * @param csvSelectorStrings
+     * @param values the value to set for the selector at the same position
+     * @throws CSVMapException if the number of selectors and values differs
+     */
+    public void setValues(List<String> csvSelectorStrings, List<String> values) {
+        if (csvSelectorStrings.size() != values.size()) {
+            throw new CSVMapException("The number of selectors (" + csvSelectorStrings.size() + ") does not match the number of values ("
+                    + values.size() + ")");
+        }
+        for (int idx = 0; idx < csvSelectorStrings.size(); idx++) {
+            this.setValues(csvSelectorStrings.get(idx), values.get(idx));
+        }
     }
 
 	/**
@@ -262,7 +433,7 @@ public class EasyCSVMap {
 	 * @return
 	 */
     public Iterator<Map<String, String>> getRowIterator() {
-    	return this.csvMap.iterator();
+    	return this.rowStore.asMapList().iterator();
     }
 
     /**
@@ -272,32 +443,179 @@ public class EasyCSVMap {
      * @throws CSVMapException Thrown if the number of elements in the given array does not match the number of header rows
      */
     public void addRow(String... values) {
-    	this.processDataRow(values);
+    	this.processDataRow(values.clone());
     }
 
     /**
-     * Writes the CSV structure to file
+     * Writes the CSV structure to file. The CSV is written to a temporary file in the same directory first, which then replaces the target
+     * file atomically (see {@link CSVContext#setSyncOnSave(boolean)} for durability). If incremental saving is enabled (see {@link CSVContext#setIncrementalSave(boolean)}), unchanged
+     * rows are copied from the parsed file as they are. When saving to the parsed file itself and only rows were added since it was
+     * parsed or saved last, the added rows are appended to the file.
      *
      * @param pathToCsv
      */
     public void saveToFile(String pathToCsv) {
+        try {
+            boolean sourceFile = this.isSourceFile(pathToCsv);
+            if (!sourceFile || !this.csvContext.isIncrementalSave() || !this.appendAddedRows(pathToCsv)) {
+                this.writeFile(pathToCsv, sourceFile);
+            }
+            if (sourceFile) {
+                this.rememberSavedRows();
+            }
+        } catch (IOException e) {
+            throw new CSVMapException(UNEXPECTED_EXCEPTION_MESSAGE, e);
+        }
+    }
 
-        CSVFileWriter writer = null;
+    private void writeFile(String pathToCsv, boolean sourceFile) throws IOException {
+        // the file is written next to the target and replaces the target at once, readers never see a partially written file
+        Path targetPath = Paths.get(pathToCsv).toAbsolutePath();
+        Path tempPath = FileUtil.getTempSibling(targetPath);
         try {
-            writer = CSVFileFactory.getWriter(pathToCsv, this.reader.getBom(), this.csvContext.getColumnSeparator(),
-                    this.csvContext.getQuoteCharacter(), this.csvContext.getLineEnd());
+            CSVFileWriter writer = null;
+            try {
+                writer = CSVFileFactory.getWriter(tempPath.toString(), this.bom, this.csvContext);
+
+                // the source file stays intact until the temporary file replaces it, so rows can be copied from it even if it is the target
+                if (this.csvContext.isIncrementalSave() && writer.isByteCopySupported() && this.parsedBytesAvailable
+                        && this.isSourceFileUnchanged()) {
+                    this.writeChangedRows(writer);
+                } else {
+                    this.writeAllRows(writer);
+                }
+            } finally {
+                closeCSVWriter(writer);
+            }
 
-            Iterator<Map<String, String>> it = this.csvMap.iterator();
-            while (it.hasNext()) {
-                String[] values = it.next().values().toArray(new String[] {});
-                writer.writeNextLine(values);
+            if (this.csvContext.isSyncOnSave()) {
+                FileUtil.sync(tempPath);
+            }
+            if (!FileUtil.tryReplaceAtomically(tempPath, targetPath)) {
+                if (sourceFile) {
+                    // rows decoded on access may still refer to the source file, which is not replaced by a new file now
+                    this.rowStore.decodeAllRows();
+                }
+                Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (sourceFile) {
+                // rows are not copied from the new file, their byte ranges refer to the replaced one
+                this.parsedBytesAvailable = false;
             }
+            if (this.csvContext.isSyncOnSave()) {
+                FileUtil.syncDirectory(targetPath.getParent());
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
 
-        } catch (IOException e) {
-            throw new CSVMapException(UNEXPECTED_EXCEPTION_MESSAGE, e);
+    /*
+     * Appends the rows added since the file was parsed or saved last, if no other rows were changed and the file wasn't changed by others.
+     * Other than writing the whole file, appending is not atomic: readers may see a partially appended row.
+     */
+    private boolean appendAddedRows(String pathToCsv) throws IOException {
+        if (!this.isSourceFileUnchanged() || this.rowStore.hasModifiedRows(this.numberOfSavedRows)) {
+            return false;
+        }
+
+        CSVFileWriter writer = null;
+        try {
+            writer = CSVFileFactory.getAppendingWriter(pathToCsv, this.bom, this.csvContext);
+            if (writer == null) {
+                return false;
+            }
+            this.writeAddedRows(writer);
         } finally {
             closeCSVWriter(writer);
         }
+        if (this.csvContext.isSyncOnSave()) {
+            FileUtil.sync(Paths.get(pathToCsv));
+        }
+        return true;
+    }
+
+    private void writeAllRows(CSVFileWriter writer) throws IOException {
+        int numberOfRows = this.rowStore.getNumberOfRows();
+        for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+            writer.writeNextLine(this.rowStore.getRow(rowIndex));
+        }
+    }
+
+    private void writeAddedRows(CSVFileWriter writer) throws IOException {
+        int numberOfRows = this.rowStore.getNumberOfRows();
+        if (this.numberOfSavedRows < numberOfRows && this.csvFileSize > 0 && !this.isLineBreakAt(this.csvFile, this.csvFileSize - 1)) {
+            // terminate the last row of the file first
+            writer.writeNextLine(new String[0]);
+        }
+        for (int rowIndex = this.numberOfSavedRows; rowIndex < numberOfRows; rowIndex++) {
+            writer.writeNextLine(this.rowStore.getRow(rowIndex));
+        }
+    }
+
+    private void rememberSavedRows() {
+        this.numberOfSavedRows = this.rowStore.getNumberOfRows();
+        this.rowStore.clearModifiedRows();
+        this.rememberFileState();
+    }
+
+    private void rememberFileState() {
+        this.csvFileSize = this.csvFile.length();
+        this.csvFileLastModified = this.csvFile.lastModified();
+    }
+
+    /*
+     * Writes changed and added rows, unchanged rows are copied from the source file. Consecutive unchanged rows are copied at once.
+     */
+    private void writeChangedRows(CSVFileWriter writer) throws IOException {
+        long copyStart = -1;
+        long copyEnd = -1;
+        int numberOfRows = this.rowStore.getNumberOfRows();
+        for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+            CSVRecord record = this.rowStore.getUnmodifiedRecord(rowIndex);
+            if (record != null && record.getSourceStart() >= 0) {
+                if (record.getSourceStart() != copyEnd) {
+                    this.copyRows(writer, copyStart, copyEnd);
+                    copyStart = record.getSourceStart();
+                }
+                copyEnd = record.getSourceEnd();
+            } else {
+                this.copyRows(writer, copyStart, copyEnd);
+                copyStart = -1;
+                copyEnd = -1;
+                writer.writeNextLine(this.rowStore.getRow(rowIndex));
+            }
+        }
+        this.copyRows(writer, copyStart, copyEnd);
+    }
+
+    private void copyRows(CSVFileWriter writer, long start, long end) throws IOException {
+        if (start >= end) {
+            return;
+        }
+        writer.copyBytes(this.csvFile, start, end - start);
+        if (end == this.parsedFileSize && !this.isLineBreakAt(this.csvFile, end - 1)) {
+            // the last row of the file has no line break, terminate it like all other rows
+            writer.writeNextLine(new String[0]);
+        }
+    }
+
+    private boolean isLineBreakAt(File file, long position) throws IOException {
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            input.seek(position);
+            int lastByte = input.read();
+            return lastByte == '\n' || lastByte == '\r';
+        }
+    }
+
+    private boolean isSourceFileUnchanged() {
+        return this.csvFile != null && this.csvFile.length() == this.csvFileSize && this.csvFile.lastModified() == this.csvFileLastModified;
+    }
+
+    private boolean isSourceFile(String pathToCsv) throws IOException {
+        Path targetPath = Paths.get(pathToCsv);
+        return this.csvFile != null && Files.exists(targetPath) && Files.exists(this.csvFile.toPath())
+                && Files.isSameFile(targetPath, this.csvFile.toPath());
     }
 
     private void closeCSVWriter(CSVFileWriter writer) {
@@ -326,7 +644,17 @@ public class EasyCSVMap {
      * @return
      */
     public int getNumberOfCSVRows() {
-        return this.csvMap.size();
+        return this.rowStore.getNumberOfRows();
+    }
+
+    /**
+     * Estimates the heap memory retained by the parsed CSV structure, i.e. the values of all rows, the header row and the indexes built for
+     * selectors. Files mapped into memory by the {@link CSVContext#ENGINE_MAPPED} engine are not part of the heap and not included.
+     *
+     * @return the estimated number of bytes
+     */
+    public long getRetainedHeapEstimate() {
+        return this.rowStore.getRetainedHeapEstimate();
     }
 
     /**
@@ -335,7 +663,7 @@ public class EasyCSVMap {
      * @return
      */
     public int getNumberOfCSVColumns() {
-        return this.headerRow.size();
+        return this.rowStore.getNumberOfColumns();
     }
 
 }
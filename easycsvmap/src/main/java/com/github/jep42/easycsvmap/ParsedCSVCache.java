@@ -0,0 +1,262 @@
+package com.github.jep42.easycsvmap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.jep42.easycsvmap.core.CSVContext;
+import com.github.jep42.easycsvmap.core.CSVMapException;
+
+/**
+ * Process wide cache of parsed CSV files. A file is parsed once per combination of its canonical path, size, modification time and the
+ * settings affecting parsing (header row, column separator, quote character and engine). Each caller gets a copy of the cached CSV which
+ * shares the rows with the cache until the caller changes them (see {@link EasyCSVMap#copy(CSVContext)}), so changes are never visible to
+ * other callers.
+ * <p>
+ * The cached CSVs are bounded by their estimated heap usage (see {@link EasyCSVMap#getRetainedHeapEstimate()}), the least recently used
+ * ones are evicted first. The bound defaults to a quarter of the maximum heap size and can be set via the system property
+ * {@value #MAX_BYTES_PROPERTY} or {@link #setMaxBytes(long)}, 0 disables the cache. Caching a changed file evicts the previous versions
+ * of the file.
+ * <p>
+ * CSVs which still decode their rows from the file (e.g. of the {@link CSVContext#ENGINE_MAPPED} engine) are not cached: the mapping is
+ * not part of the heap and keeps the file open, which prevents replacing or deleting it on some platforms (e.g. Windows).
+ */
+public final class ParsedCSVCache {
+
+    /**
+     * System property for the maximum estimated heap usage of all cached CSVs in bytes
+     */
+    public static final String MAX_BYTES_PROPERTY = "easycsvmap.cache.maxBytes";
+
+    private static final Map<Key, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final AtomicLong CACHE_HITS = new AtomicLong();
+
+    private static final AtomicLong CACHE_MISSES = new AtomicLong();
+
+    private static volatile long maxBytes = Long.getLong(MAX_BYTES_PROPERTY, Runtime.getRuntime().maxMemory() / 4);
+
+    /*
+     * estimated heap usage of all cached CSVs, guarded by ENTRIES
+     */
+    private static long retainedBytes;
+
+
+    private ParsedCSVCache() {}
+
+    /**
+     * Parses the given CSV file or copies the CSV cached for the file and the given settings.
+     *
+     * @param csvFilePath path to CSV file
+     * @param csvContext  the format settings, the returned CSV uses them for all subsequent operations
+     * @return the parsed CSV, changes of it do not affect the cache
+     */
+    public static EasyCSVMap parseCsvFromFile(String csvFilePath, CSVContext csvContext) {
+        if (maxBytes <= 0) {
+            return ParsedCSVCache.parse(csvFilePath, csvContext);
+        }
+
+        Key key = new Key(csvFilePath, csvContext);
+        Entry entry;
+        synchronized (ENTRIES) {
+            entry = ENTRIES.computeIfAbsent(key, k -> new Entry());
+        }
+
+        // concurrent callers for the same file wait for the first one instead of parsing the file again, the cached CSV is only accessed
+        // while holding the lock of the entry
+        boolean parsed = false;
+        boolean backedBySourceFile = false;
+        long entryBytes = 0;
+        EasyCSVMap copy;
+        synchronized (entry) {
+            if (entry.csvMap == null) {
+                CACHE_MISSES.incrementAndGet();
+                try {
+                    entry.csvMap = ParsedCSVCache.parse(csvFilePath, new CSVContext(csvContext));
+                } catch (RuntimeException e) {
+                    ParsedCSVCache.remove(key, entry);
+                    throw e;
+                }
+                parsed = true;
+                backedBySourceFile = entry.csvMap.isBackedBySourceFile();
+                entryBytes = entry.csvMap.getRetainedHeapEstimate();
+            } else {
+                CACHE_HITS.incrementAndGet();
+            }
+            copy = entry.csvMap.copy(csvContext);
+        }
+
+        if (parsed) {
+            if (backedBySourceFile) {
+                ParsedCSVCache.remove(key, entry);
+            } else if (key.equals(new Key(csvFilePath, csvContext))) {
+                ParsedCSVCache.add(key, entry, entryBytes);
+            } else {
+                // the file was changed while it was parsed
+                ParsedCSVCache.remove(key, entry);
+            }
+        }
+        return copy;
+    }
+
+    private static EasyCSVMap parse(String csvFilePath, CSVContext csvContext) {
+        EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+        csvMap.parseCsvFromFile(csvFilePath);
+        return csvMap;
+    }
+
+    private static void add(Key key, Entry entry, long entryBytes) {
+        synchronized (ENTRIES) {
+            if (ENTRIES.get(key) != entry) {
+                return;
+            }
+            entry.retainedBytes = entryBytes;
+            retainedBytes += entryBytes;
+
+            // previous versions of the file are not requested anymore
+            Iterator<Map.Entry<Key, Entry>> previousVersions = ENTRIES.entrySet().iterator();
+            while (previousVersions.hasNext()) {
+                Map.Entry<Key, Entry> previousVersion = previousVersions.next();
+                if (previousVersion.getKey().isOtherVersionOf(key)) {
+                    retainedBytes -= previousVersion.getValue().retainedBytes;
+                    previousVersions.remove();
+                }
+            }
+
+            // evict the least recently used entries, the new entry is the most recently used one
+            Iterator<Entry> entries = ENTRIES.values().iterator();
+            while (retainedBytes > maxBytes && entries.hasNext()) {
+                Entry eldest = entries.next();
+                retainedBytes -= eldest.retainedBytes;
+                entries.remove();
+            }
+        }
+    }
+
+    private static void remove(Key key, Entry entry) {
+        synchronized (ENTRIES) {
+            if (ENTRIES.remove(key, entry)) {
+                retainedBytes -= entry.retainedBytes;
+            }
+        }
+    }
+
+    /**
+     * @return the maximum estimated heap usage of all cached CSVs in bytes
+     */
+    public static long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Sets the maximum estimated heap usage of all cached CSVs. Cached CSVs exceeding the new bound are evicted on the next parse.
+     *
+     * @param maxBytes the bound in bytes, 0 disables the cache
+     */
+    public static void setMaxBytes(long maxBytes) {
+        ParsedCSVCache.maxBytes = maxBytes;
+        if (maxBytes <= 0) {
+            ParsedCSVCache.clearCache();
+        }
+    }
+
+    /**
+     * @return the estimated heap usage of all cached CSVs in bytes
+     */
+    public static long getRetainedBytes() {
+        synchronized (ENTRIES) {
+            return retainedBytes;
+        }
+    }
+
+    /**
+     * @return number of parses which were served from the cache
+     */
+    public static long getCacheHits() {
+        return CACHE_HITS.get();
+    }
+
+    /**
+     * @return number of parses which required parsing the file
+     */
+    public static long getCacheMisses() {
+        return CACHE_MISSES.get();
+    }
+
+    /**
+     * Removes all cached CSVs and resets the hit/miss counters. Copies handed out before are not affected.
+     */
+    public static void clearCache() {
+        synchronized (ENTRIES) {
+            ENTRIES.clear();
+            retainedBytes = 0;
+        }
+        CACHE_HITS.set(0);
+        CACHE_MISSES.set(0);
+    }
+
+    private static final class Entry {
+
+        private EasyCSVMap csvMap;
+
+        private long retainedBytes;
+    }
+
+    private static final class Key {
+
+        private final String canonicalPath;
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final int headerRowIndex;
+
+        private final char columnSeparator;
+
+        private final char quoteCharacter;
+
+        private final String engine;
+
+        Key(String csvFilePath, CSVContext csvContext) {
+            File csvFile = new File(csvFilePath);
+            try {
+                this.canonicalPath = csvFile.getCanonicalPath();
+            } catch (IOException e) {
+                throw new CSVMapException("Failed to resolve the path of the CSV file " + csvFilePath, e);
+            }
+            this.size = csvFile.length();
+            this.lastModified = csvFile.lastModified();
+            this.headerRowIndex = csvContext.getHeaderRowIndex();
+            this.columnSeparator = csvContext.getColumnSeparator();
+            this.quoteCharacter = csvContext.getQuoteCharacter();
+            this.engine = csvContext.getEngine();
+        }
+
+        boolean isOtherVersionOf(Key other) {
+            return this.canonicalPath.equals(other.canonicalPath) && (this.size != other.size || this.lastModified != other.lastModified);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.canonicalPath.equals(other.canonicalPath) && this.size == other.size && this.lastModified == other.lastModified
+                    && this.headerRowIndex == other.headerRowIndex && this.columnSeparator == other.columnSeparator
+                    && this.quoteCharacter == other.quoteCharacter && Objects.equals(this.engine, other.engine);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.canonicalPath, this.size, this.lastModified, this.headerRowIndex, this.columnSeparator,
+                    this.quoteCharacter, this.engine);
+        }
+    }
+
+}
@@ -7,16 +7,53 @@ public class CSVContext {
     public static final char STANDARD_QUOTE_CHARACTER = '\"';
     public static final String STANDARD_LINE_END = "\n";
 
+    /**
+     * Reads and writes CSV files via opencsv.
+     */
+    public static final String ENGINE_OPENCSV = "opencsv";
+
+    /**
+     * Reads CSV files via a memory-mapped tokenizer which decodes values on first access. The file must not be changed by others while
+     * the parsed CSV is in use.
+     */
+    public static final String ENGINE_MAPPED = "mapped";
+
+    /**
+     * System property to change the engine of new contexts, the default is {@link #ENGINE_OPENCSV}.
+     */
+    public static final String ENGINE_PROPERTY = "easycsvmap.engine";
+
     private int headerRowIndex;
     private char columnSeparator;
     private char quoteCharacter;
     private String lineEnd;
+    private boolean parallelParsing;
+    private String engine;
+    private boolean incrementalSave;
+    private boolean syncOnSave;
 
     public CSVContext(int headerRowIndex) {
         this.headerRowIndex = headerRowIndex > NO_HEADER_INDEX ? headerRowIndex : NO_HEADER_INDEX;
         this.columnSeparator = STANDARD_COLUMN_SEPARATOR;
         this.quoteCharacter = STANDARD_QUOTE_CHARACTER;
         this.lineEnd = STANDARD_LINE_END;
+        this.engine = System.getProperty(ENGINE_PROPERTY, ENGINE_OPENCSV);
+    }
+
+    /**
+     * Creates a copy of the given settings.
+     *
+     * @param csvContext
+     */
+    public CSVContext(CSVContext csvContext) {
+        this.headerRowIndex = csvContext.headerRowIndex;
+        this.columnSeparator = csvContext.columnSeparator;
+        this.quoteCharacter = csvContext.quoteCharacter;
+        this.lineEnd = csvContext.lineEnd;
+        this.parallelParsing = csvContext.parallelParsing;
+        this.engine = csvContext.engine;
+        this.incrementalSave = csvContext.incrementalSave;
+        this.syncOnSave = csvContext.syncOnSave;
     }
 
     public boolean hasHeaderRow() {
@@ -55,6 +92,67 @@ public class CSVContext {
         this.lineEnd = lineEnd;
     }
 
+    public boolean isParallelParsing() {
+        return parallelParsing;
+    }
+
+    /**
+     * Enables parsing of large CSV files on multiple cores. Files which are too small or cannot be split reliably are still parsed
+     * sequentially. Applies to the {@link #ENGINE_OPENCSV} engine only.
+     *
+     * @param parallelParsing
+     */
+    public void setParallelParsing(boolean parallelParsing) {
+        this.parallelParsing = parallelParsing;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * Selects the engine used to read and write CSV files by its name, see {@link #ENGINE_OPENCSV} (default), {@link #ENGINE_MAPPED} and
+     * {@link com.github.jep42.easycsvmap.csv.api.CSVEngine} for custom engines.
+     *
+     * @param engine
+     */
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public boolean isIncrementalSave() {
+        return incrementalSave;
+    }
+
+    /**
+     * Enables saving only the changed and added rows, all other rows are copied from the parsed file byte by byte, i.e. they keep their
+     * original quoting and line breaks. This applies to saving to the parsed file itself as well as to saving to another file. Unchanged
+     * rows can only be copied if the engine knows their position in the file (e.g. {@link #ENGINE_MAPPED}) and if the parsed file was not
+     * changed since. Once the parsed file was replaced by saving to it, the positions do not match the file anymore and all rows are
+     * written by subsequent saves. When saving to the parsed file itself and only rows were added, the added rows are appended to the
+     * file.
+     *
+     * @param incrementalSave
+     */
+    public void setIncrementalSave(boolean incrementalSave) {
+        this.incrementalSave = incrementalSave;
+    }
+
+    public boolean isSyncOnSave() {
+        return syncOnSave;
+    }
+
+    /**
+     * Enables forcing saved files to the storage device (fsync) before they replace the target file, so that a saved file survives a
+     * crash of the operating system. Disabled by default, as syncing is slow and not needed for files which are read by other processes
+     * only.
+     *
+     * @param syncOnSave
+     */
+    public void setSyncOnSave(boolean syncOnSave) {
+        this.syncOnSave = syncOnSave;
+    }
+
 
 
 }
@@ -2,13 +2,21 @@ package com.github.jep42.easycsvmap.csv;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
 
 import org.apache.commons.io.ByteOrderMark;
 
+import com.github.jep42.easycsvmap.core.CSVContext;
+import com.github.jep42.easycsvmap.core.CSVMapException;
+import com.github.jep42.easycsvmap.csv.api.CSVEngine;
 import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
 import com.github.jep42.easycsvmap.csv.api.CSVFileWriter;
+import com.github.jep42.easycsvmap.csv.impl.ChannelCSVWriter;
 import com.github.jep42.easycsvmap.csv.impl.OpenCSVReader;
-import com.github.jep42.easycsvmap.csv.impl.OpenCSVWriter;
 
 public final class CSVFileFactory {
 
@@ -29,6 +37,19 @@ public final class CSVFileFactory {
         return new OpenCSVReader(csvFile, columnSeparator, quoteCharacter);
     }
 
+    /**
+     * Creates a new CSVFileReader object for the given CSV file using the engine and format settings of the given context.
+     *
+     * @param csvFile    The actual CSV file
+     * @param csvContext The format settings and engine
+     * @return New CSVFileReader instance
+     * @throws IOException
+     * @throws CSVMapException if the engine of the context is unknown
+     */
+    public static CSVFileReader getReader(File csvFile, CSVContext csvContext) throws IOException {
+        return getEngine(csvContext.getEngine()).createReader(csvFile, csvContext);
+    }
+
     /**
      * Creates a new CSVFileWriter object with the given properties. CSV output will be written to the given target
      * path. If the BOM is not <code>null</code> a
@@ -46,7 +67,80 @@ public final class CSVFileFactory {
      */
     public static CSVFileWriter getWriter(String targetPath, ByteOrderMark bom, char columnSeparator,
             char quoteCharacter, String lineEnd) throws IOException {
-        return new OpenCSVWriter(targetPath, bom, columnSeparator, quoteCharacter, lineEnd);
+        return new ChannelCSVWriter(targetPath, bom, columnSeparator, quoteCharacter, lineEnd);
+    }
+
+    /**
+     * Creates a new CSVFileWriter object using the engine and format settings of the given context. CSV output will be written to the
+     * given target path.
+     *
+     * @param targetPath The path to the output file
+     * @param bom        Byte order mark. If not <code>null</code> the corresponding bytes will be added to the very beginning of the output
+     *                       file.
+     * @param csvContext The format settings and engine
+     * @return New CSVFileWriter instance with optional byte order mark
+     * @throws IOException If the file cannot be created or opened
+     * @throws CSVMapException if the engine of the context is unknown
+     */
+    public static CSVFileWriter getWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException {
+        return getEngine(csvContext.getEngine()).createWriter(targetPath, bom, csvContext);
+    }
+
+    /**
+     * Creates a new CSVFileWriter object which appends to the given existing file, using the engine and format settings of the given
+     * context.
+     *
+     * @param targetPath The path to the existing CSV file
+     * @param bom        Byte order mark of the existing file, may be <code>null</code>. It is not written again.
+     * @param csvContext The format settings and engine
+     * @return New CSVFileWriter instance or <code>null</code> if the engine cannot append to files
+     * @throws IOException If the file cannot be opened
+     * @throws CSVMapException if the engine of the context is unknown
+     */
+    public static CSVFileWriter getAppendingWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException {
+        return getEngine(csvContext.getEngine()).createAppendingWriter(targetPath, bom, csvContext);
+    }
+
+    /**
+     * Retrieves the engine with the given name. Engines are discovered via {@link ServiceLoader} once.
+     *
+     * @param engineName
+     * @return the engine
+     * @throws CSVMapException if there is no engine with the given name
+     */
+    public static CSVEngine getEngine(String engineName) {
+        CSVEngine engine = EngineRegistry.ENGINES.get(engineName);
+        if (engine == null) {
+            throw new CSVMapException("The CSV engine " + engineName + " is not supported, available engines: " + getEngineNames());
+        }
+        return engine;
+    }
+
+    /**
+     * @return the names of all available engines
+     */
+    public static Set<String> getEngineNames() {
+        return Collections.unmodifiableSet(EngineRegistry.ENGINES.keySet());
+    }
+
+    /*
+     * engines are loaded on first use, the first engine found for a name wins
+     */
+    private static final class EngineRegistry {
+
+        private static final Map<String, CSVEngine> ENGINES = loadEngines();
+
+        private EngineRegistry() {
+            super();
+        }
+
+        private static Map<String, CSVEngine> loadEngines() {
+            Map<String, CSVEngine> engines = new LinkedHashMap<>();
+            for (CSVEngine engine : ServiceLoader.load(CSVEngine.class, CSVFileFactory.class.getClassLoader())) {
+                engines.putIfAbsent(engine.getName(), engine);
+            }
+            return engines;
+        }
     }
 
 }
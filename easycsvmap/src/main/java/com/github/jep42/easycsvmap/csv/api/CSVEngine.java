@@ -0,0 +1,57 @@
+package com.github.jep42.easycsvmap.csv.api;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.ByteOrderMark;
+
+import com.github.jep42.easycsvmap.core.CSVContext;
+
+/**
+ * Service provider interface for engines which read and write CSV files. Engines are discovered via {@link java.util.ServiceLoader}, i.e.
+ * an engine is registered by listing its class in <code>META-INF/services/com.github.jep42.easycsvmap.csv.api.CSVEngine</code>. The engine
+ * used for a particular CSV is selected by its name via {@link CSVContext#setEngine(String)}.
+ */
+public interface CSVEngine {
+
+    /**
+     * @return the unique name used to select this engine
+     */
+    String getName();
+
+    /**
+     * Creates a new reader for the given CSV file.
+     *
+     * @param csvFile    The actual CSV file
+     * @param csvContext The format settings of the CSV
+     * @return New CSVFileReader instance
+     * @throws IOException if the file cannot be opened
+     */
+    CSVFileReader createReader(File csvFile, CSVContext csvContext) throws IOException;
+
+    /**
+     * Creates a new writer which writes the CSV to the given target path.
+     *
+     * @param targetPath The path to the output file
+     * @param bom        Byte order mark to write to the very beginning of the file, may be <code>null</code>
+     * @param csvContext The format settings of the CSV
+     * @return New CSVFileWriter instance
+     * @throws IOException if the file cannot be created or opened
+     */
+    CSVFileWriter createWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException;
+
+    /**
+     * Creates a new writer which appends rows to the given existing CSV file. Engines which cannot append return <code>null</code>, in
+     * this case the whole file is written again.
+     *
+     * @param targetPath The path to the existing CSV file
+     * @param bom        Byte order mark of the existing file, may be <code>null</code>. It is not written again, but determines the charset.
+     * @param csvContext The format settings of the CSV
+     * @return New CSVFileWriter instance or <code>null</code>
+     * @throws IOException if the file cannot be opened
+     */
+    default CSVFileWriter createAppendingWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException {
+        return null;
+    }
+
+}
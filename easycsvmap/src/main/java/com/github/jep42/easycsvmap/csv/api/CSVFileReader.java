@@ -8,6 +8,18 @@ public interface CSVFileReader {
 
     String[] readNextLine() throws IOException;
 
+    /**
+     * Reads the next record of the CSV file. In contrast to {@link #readNextLine()}, readers may defer decoding the values of the record
+     * until they are accessed.
+     *
+     * @return the next record or <code>null</code> if the end of the file was reached
+     * @throws IOException
+     */
+    default CSVRecord readNextRecord() throws IOException {
+        String[] values = this.readNextLine();
+        return values == null ? null : new StringArrayRecord(values);
+    }
+
     void close() throws IOException;
 
     ByteOrderMark getBom();
@@ -1,10 +1,31 @@
 package com.github.jep42.easycsvmap.csv.api;
 
+import java.io.File;
 import java.io.IOException;
 
 public interface CSVFileWriter {
 
-    void writeNextLine(String[] values);
+    void writeNextLine(String[] values) throws IOException;
+
+    /**
+     * @return <code>true</code> if the writer supports {@link #copyBytes(File, long, long)}
+     */
+    default boolean isByteCopySupported() {
+        return false;
+    }
+
+    /**
+     * Copies a byte range of the given file to the output as it is, e.g. rows of the parsed file which were not changed.
+     *
+     * @param sourceFile the file to copy from
+     * @param position   the position of the first byte to copy
+     * @param count      the number of bytes to copy
+     * @throws IOException
+     * @throws UnsupportedOperationException if the writer does not support copying bytes
+     */
+    default void copyBytes(File sourceFile, long position, long count) throws IOException {
+        throw new UnsupportedOperationException("Copying bytes is not supported by " + this.getClass().getName());
+    }
 
     void close() throws IOException;
 
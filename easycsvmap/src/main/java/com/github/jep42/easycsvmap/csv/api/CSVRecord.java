@@ -0,0 +1,80 @@
+package com.github.jep42.easycsvmap.csv.api;
+
+import com.github.jep42.easycsvmap.util.MemoryEstimate;
+
+/**
+ * A single record (row) of a CSV file. Implementations may decode the values of the record on first access only.
+ */
+public interface CSVRecord {
+
+    /**
+     * @return the number of values of this record
+     */
+    int size();
+
+    /**
+     * @param index the column index of the value
+     * @return the value of the given column
+     * @throws IndexOutOfBoundsException if the index is not within [0, size())
+     */
+    String get(int index);
+
+    /**
+     * Records which decode their values on first access are worth keeping as they are, the values of all other records can be copied.
+     *
+     * @return <code>true</code> if values are decoded on first access
+     */
+    default boolean isDecodedOnAccess() {
+        return false;
+    }
+
+    /**
+     * Readers which tokenize the raw bytes of the file know the byte range each record was read from, see {@link #getSourceEnd()}.
+     *
+     * @return the position of the first byte of the record within the source file or -1 if unknown
+     */
+    default long getSourceStart() {
+        return -1;
+    }
+
+    /**
+     * @return the position behind the last byte of the record including its line break or -1 if unknown
+     */
+    default long getSourceEnd() {
+        return -1;
+    }
+
+    /**
+     * Estimates the heap memory retained by this record (see {@link MemoryEstimate}). The default implementation decodes all values,
+     * records which decode their values on access should provide a cheaper estimate.
+     *
+     * @return the estimated number of bytes
+     */
+    default long getRetainedHeapEstimate() {
+        return MemoryEstimate.ofStrings(this.toArray());
+    }
+
+    /**
+     * Decodes all values of the record.
+     *
+     * @return new array containing the values of the record
+     */
+    default String[] toArray() {
+        String[] values = new String[this.size()];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = this.get(index);
+        }
+        return values;
+    }
+
+    /**
+     * Hands the values of the record over to the caller, which may keep and change the returned array. The record must not be used
+     * afterwards. Records which are backed by an array of their own return this array instead of a copy.
+     *
+     * @return array containing the values of the record
+     */
+    default String[] detachValues() {
+        return this.toArray();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.github.jep42.easycsvmap.csv.api;
+
+/**
+ * CSVRecord of readers which decode all values of a record at once.
+ */
+final class StringArrayRecord implements CSVRecord {
+
+    private final String[] values;
+
+    StringArrayRecord(String[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public String get(int index) {
+        return this.values[index];
+    }
+
+    @Override
+    public String[] toArray() {
+        return this.values.clone();
+    }
+
+    @Override
+    public String[] detachValues() {
+        // the reader creates a new array per record
+        return this.values;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Helpers for readers which scan the raw bytes of a CSV file instead of decoded characters.
+ */
+final class ByteScanSupport {
+
+    private ByteScanSupport() {
+        super();
+    }
+
+    /**
+     * A byte scan can only find the given characters if each of them is encoded as a single ASCII byte and if no other character of the
+     * charset is encoded with bytes in the ASCII range. This holds for UTF-8 and the ASCII based single byte charsets.
+     *
+     * @param charset    The charset of the file content
+     * @param characters The characters the scan is looking for
+     * @return <code>true</code> if the content can be scanned byte by byte
+     */
+    static boolean isByteScannable(Charset charset, char... characters) {
+        if (!StandardCharsets.UTF_8.equals(charset) && charset.newEncoder().maxBytesPerChar() != 1) {
+            return false;
+        }
+        String scannedCharacters = new String(characters);
+        return Arrays.equals(scannedCharacters.getBytes(charset), scannedCharacters.getBytes(StandardCharsets.ISO_8859_1))
+                && scannedCharacters.chars().allMatch(c -> c < 0x80);
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.ByteOrderMark;
+
+import com.github.jep42.easycsvmap.csv.api.CSVFileWriter;
+import com.github.jep42.easycsvmap.util.FileUtil;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+/**
+ * CSVFileWriter which encodes the rows into a large buffer and writes the buffer to a {@link FileChannel} whenever it is full. The values
+ * are encoded in the charset matching the byte order mark, i.e. the charset the file is read with (see {@link FileUtil#getCharset()}).
+ * <p>
+ * The output is the same as of the opencsv {@link CSVWriter}: each value is enclosed in quote characters (unless the quote character is
+ * {@link CSVWriter#NO_QUOTE_CHARACTER}), quote characters and double quotes within a value are preceded by a double quote (i.e. doubled
+ * for the default quote character), <code>null</code> values are left empty.
+ */
+public class ChannelCSVWriter implements CSVFileWriter {
+
+    static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int CHAR_BUFFER_SIZE = 64 * 1024;
+
+    private static final char ESCAPE_CHARACTER = CSVWriter.DEFAULT_ESCAPE_CHARACTER;
+
+    private final FileChannel channel;
+
+    private final CharsetEncoder encoder;
+
+    private final char columnSeparator;
+
+    private final char quoteCharacter;
+
+    private final String lineEnd;
+
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+
+    private final ByteBuffer bytes;
+
+    private File sourceFile;
+
+    private FileChannel sourceChannel;
+
+    /**
+     * Creates a new writer which truncates or creates the given target file.
+     *
+     * @param targetPath      The path to the output file
+     * @param bom             ByteOrderMark, may be null
+     * @param columnSeparator The delimiter to use for separating entries
+     * @param quoteCharacter  The character to use for quoted elements
+     * @param lineEnd         The line feed terminator to use
+     * @throws IOException if the file cannot be created or opened
+     */
+    public ChannelCSVWriter(String targetPath, ByteOrderMark bom, char columnSeparator, char quoteCharacter, String lineEnd)
+            throws IOException {
+        this(targetPath, bom, columnSeparator, quoteCharacter, lineEnd, false, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new writer which either truncates or creates the given target file or appends to the existing target file.
+     *
+     * @param targetPath      The path to the output file
+     * @param bom             ByteOrderMark, may be null. The BOM is not written when appending, but still determines the charset.
+     * @param columnSeparator The delimiter to use for separating entries
+     * @param quoteCharacter  The character to use for quoted elements
+     * @param lineEnd         The line feed terminator to use
+     * @param append          <code>true</code> to append to the existing file
+     * @throws IOException if the file cannot be created or opened
+     */
+    public ChannelCSVWriter(String targetPath, ByteOrderMark bom, char columnSeparator, char quoteCharacter, String lineEnd, boolean append)
+            throws IOException {
+        this(targetPath, bom, columnSeparator, quoteCharacter, lineEnd, append, DEFAULT_BUFFER_SIZE);
+    }
+
+    ChannelCSVWriter(String targetPath, ByteOrderMark bom, char columnSeparator, char quoteCharacter, String lineEnd, boolean append,
+            int bufferSize) throws IOException {
+        super();
+
+        this.columnSeparator = columnSeparator;
+
+        this.quoteCharacter = quoteCharacter;
+
+        this.lineEnd = lineEnd;
+
+        // unmappable characters are replaced, just like a java.io.Writer does
+        this.encoder = FileUtil.getCharset(bom).newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        this.bytes = ByteBuffer.allocateDirect(Math.max(bufferSize, (int) Math.ceil(this.encoder.maxBytesPerChar()) * 2));
+
+        if (append) {
+            this.channel = FileChannel.open(Paths.get(targetPath), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } else {
+            this.channel = FileChannel.open(Paths.get(targetPath), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        if (bom != null && !append) {
+            this.bytes.put(bom.getBytes());
+        }
+    }
+
+    @Override
+    public void writeNextLine(String[] values) throws IOException {
+        for (int idx = 0; idx < values.length; idx++) {
+            if (idx > 0) {
+                this.append(this.columnSeparator);
+            }
+            String value = values[idx];
+            if (value != null) {
+                if (this.quoteCharacter != CSVWriter.NO_QUOTE_CHARACTER) {
+                    this.append(this.quoteCharacter);
+                }
+                this.appendQuoted(value);
+                if (this.quoteCharacter != CSVWriter.NO_QUOTE_CHARACTER) {
+                    this.append(this.quoteCharacter);
+                }
+            }
+        }
+        this.append(this.lineEnd, 0, this.lineEnd.length());
+    }
+
+    @Override
+    public boolean isByteCopySupported() {
+        return true;
+    }
+
+    /**
+     * Copies the given byte range via {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, i.e. without
+     * copying the bytes to the Java heap. The source file is kept open until the writer is closed.
+     */
+    @Override
+    public void copyBytes(File sourceFile, long position, long count) throws IOException {
+        this.encodeChars(false);
+        this.writeBytes();
+
+        if (!sourceFile.equals(this.sourceFile)) {
+            this.closeSourceChannel();
+            this.sourceChannel = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ);
+            this.sourceFile = sourceFile;
+        }
+        long transferred = 0;
+        while (transferred < count) {
+            long bytesTransferred = this.sourceChannel.transferTo(position + transferred, count - transferred, this.channel);
+            if (bytesTransferred <= 0) {
+                throw new IOException("Unexpected end of file " + sourceFile + " at position " + (position + transferred));
+            }
+            transferred += bytesTransferred;
+        }
+    }
+
+    private void closeSourceChannel() throws IOException {
+        if (this.sourceChannel != null) {
+            this.sourceChannel.close();
+            this.sourceChannel = null;
+            this.sourceFile = null;
+        }
+    }
+
+    private void appendQuoted(String value) throws IOException {
+        int start = 0;
+        int length = value.length();
+        for (int idx = 0; idx < length; idx++) {
+            char c = value.charAt(idx);
+            if (c == this.quoteCharacter || c == ESCAPE_CHARACTER) {
+                this.append(value, start, idx);
+                this.append(ESCAPE_CHARACTER);
+                start = idx;
+            }
+        }
+        this.append(value, start, length);
+    }
+
+    private void append(char c) throws IOException {
+        if (!this.chars.hasRemaining()) {
+            this.encodeChars(false);
+        }
+        this.chars.put(c);
+    }
+
+    private void append(String value, int start, int end) throws IOException {
+        int idx = start;
+        while (idx < end) {
+            if (!this.chars.hasRemaining()) {
+                this.encodeChars(false);
+            }
+            int count = Math.min(end - idx, this.chars.remaining());
+            this.chars.put(value, idx, idx + count);
+            idx += count;
+        }
+    }
+
+    /*
+     * Encodes the buffered characters, a trailing high surrogate stays in the buffer until its low surrogate is appended
+     */
+    private void encodeChars(boolean endOfInput) throws IOException {
+        this.chars.flip();
+        CoderResult result;
+        while ((result = this.encoder.encode(this.chars, this.bytes, endOfInput)).isOverflow()) {
+            this.writeBytes();
+        }
+        this.throwOnError(result);
+        this.chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        this.bytes.flip();
+        while (this.bytes.hasRemaining()) {
+            this.channel.write(this.bytes);
+        }
+        this.bytes.clear();
+    }
+
+    private void throwOnError(CoderResult result) throws CharacterCodingException {
+        if (result.isError()) {
+            result.throwException();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.encodeChars(true);
+            CoderResult result;
+            while ((result = this.encoder.flush(this.bytes)).isOverflow()) {
+                this.writeBytes();
+            }
+            this.throwOnError(result);
+            this.writeBytes();
+        } finally {
+            try {
+                this.closeSourceChannel();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+}
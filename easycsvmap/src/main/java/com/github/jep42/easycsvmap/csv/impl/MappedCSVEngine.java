@@ -0,0 +1,39 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.ByteOrderMark;
+
+import com.github.jep42.easycsvmap.core.CSVContext;
+import com.github.jep42.easycsvmap.csv.api.CSVEngine;
+import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
+import com.github.jep42.easycsvmap.csv.api.CSVFileWriter;
+
+/**
+ * Engine based on the memory-mapped tokenizer, see {@link CSVContext#ENGINE_MAPPED}. Files are written via {@link ChannelCSVWriter}.
+ */
+public class MappedCSVEngine implements CSVEngine {
+
+    @Override
+    public String getName() {
+        return CSVContext.ENGINE_MAPPED;
+    }
+
+    @Override
+    public CSVFileReader createReader(File csvFile, CSVContext csvContext) throws IOException {
+        return new MappedCSVReader(csvFile, csvContext.getColumnSeparator(), csvContext.getQuoteCharacter());
+    }
+
+    @Override
+    public CSVFileWriter createWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException {
+        return new ChannelCSVWriter(targetPath, bom, csvContext.getColumnSeparator(), csvContext.getQuoteCharacter(), csvContext.getLineEnd());
+    }
+
+    @Override
+    public CSVFileWriter createAppendingWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException {
+        return new ChannelCSVWriter(targetPath, bom, csvContext.getColumnSeparator(), csvContext.getQuoteCharacter(), csvContext.getLineEnd(),
+                true);
+    }
+
+}
@@ -0,0 +1,248 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.apache.commons.io.ByteOrderMark;
+
+import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
+import com.github.jep42.easycsvmap.csv.api.CSVRecord;
+import com.github.jep42.easycsvmap.util.FileUtil;
+
+import au.com.bytecode.opencsv.CSVParser;
+
+/**
+ * CSVFileReader which maps the CSV file into memory and tokenizes the raw bytes. The records only keep the byte ranges of their values,
+ * values are decoded on first access (see {@link #readNextRecord()}).
+ * <p>
+ * Values follow RFC 4180: a value enclosed in quote characters may contain column separators, line breaks and doubled quote characters.
+ * As with opencsv, the escape character (\) escapes a following quote or escape character and line breaks within quotes are
+ * normalized to \n. Other than opencsv, an escape character in front of any other character is kept and quote characters within an
+ * unquoted value are plain characters. Lines are terminated by \n, \r\n or \r.
+ * <p>
+ * Files are mapped in segments, hence files larger than 2 GB are supported as long as a single record fits into one segment. Files in
+ * charsets which are not ASCII compatible (e.g. UTF-16) are read via {@link OpenCSVReader}.
+ */
+public class MappedCSVReader implements CSVFileReader {
+
+    static final int DEFAULT_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+    private static final char ESCAPE_CHARACTER = CSVParser.DEFAULT_ESCAPE_CHARACTER;
+
+    private static final byte LINE_FEED = '\n';
+
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private static final int INCOMPLETE_RECORD = -1;
+
+    private final File csvFile;
+
+    private final char columnSeparator;
+
+    private final char quoteCharacter;
+
+    private final int segmentSize;
+
+    private FileUtil fileUtil;
+
+    private FileChannel channel;
+
+    private long fileSize;
+
+    private long position;
+
+    private ByteBuffer segment;
+
+    private long segmentStart;
+
+    private int[] valueBounds = new int[32];
+
+    private int numberOfValueBounds;
+
+    private CSVFileReader sequentialReader;
+
+
+    public MappedCSVReader(File csvFile, char columnSeparator, char quoteCharacter) throws IOException {
+        this(csvFile, columnSeparator, quoteCharacter, DEFAULT_SEGMENT_SIZE);
+    }
+
+    MappedCSVReader(File csvFile, char columnSeparator, char quoteCharacter, int segmentSize) throws IOException {
+        super();
+
+        this.csvFile = csvFile;
+
+        this.columnSeparator = columnSeparator;
+
+        this.quoteCharacter = quoteCharacter;
+
+        this.segmentSize = segmentSize;
+
+        this.initializeReader();
+    }
+
+    private void initializeReader() throws IOException {
+        this.fileUtil = FileUtil.getFileUtilFor(this.csvFile.getAbsolutePath());
+        this.segment = null;
+
+        if (ByteScanSupport.isByteScannable(this.fileUtil.getCharset(), (char) LINE_FEED, (char) CARRIAGE_RETURN, this.columnSeparator,
+                this.quoteCharacter, ESCAPE_CHARACTER)) {
+            this.sequentialReader = null;
+            this.channel = FileChannel.open(this.csvFile.toPath(), StandardOpenOption.READ);
+            this.fileSize = this.channel.size();
+            this.position = this.fileUtil.getBom() == null ? 0 : this.fileUtil.getBom().length();
+        } else {
+            this.sequentialReader = new OpenCSVReader(this.csvFile, this.columnSeparator, this.quoteCharacter);
+        }
+    }
+
+    @Override
+    public String[] readNextLine() throws IOException {
+        CSVRecord record = this.readNextRecord();
+        return record == null ? null : record.toArray();
+    }
+
+    /**
+     * Reads the next record. The values of the returned record are decoded on first access, the record keeps the mapped segment of the
+     * file it was read from.
+     */
+    @Override
+    public CSVRecord readNextRecord() throws IOException {
+        if (this.sequentialReader != null) {
+            return this.sequentialReader.readNextRecord();
+        }
+        if (this.position >= this.fileSize) {
+            return null;
+        }
+
+        if (this.segment == null || this.position >= this.segmentStart + this.segment.limit()) {
+            this.mapSegment(this.segmentSize);
+        }
+
+        int recordEnd;
+        while ((recordEnd = this.tokenizeRecord((int) (this.position - this.segmentStart))) == INCOMPLETE_RECORD) {
+            // the record exceeds the segment, map a new segment starting with the record
+            int mappedSize = this.segment.limit();
+            if (this.position == this.segmentStart && mappedSize == Integer.MAX_VALUE) {
+                throw new IOException("The CSV record at position " + this.position + " exceeds the maximum supported record size");
+            }
+            this.mapSegment(this.position == this.segmentStart ? (int) Math.min(2L * mappedSize, Integer.MAX_VALUE) : this.segmentSize);
+        }
+
+        CSVRecord record = new MappedCSVRecord(this.segment, this.position, this.segmentStart + recordEnd,
+                Arrays.copyOf(this.valueBounds, this.numberOfValueBounds), this.fileUtil.getCharset(), this.quoteCharacter, ESCAPE_CHARACTER);
+        this.position = this.segmentStart + recordEnd;
+        return record;
+    }
+
+    private void mapSegment(int size) throws IOException {
+        this.segmentStart = this.position;
+        this.segment = this.channel.map(MapMode.READ_ONLY, this.segmentStart, Math.min(size, this.fileSize - this.segmentStart));
+    }
+
+    /*
+     * Collects the value bounds of the record starting at the given segment offset and returns the offset of the next record or
+     * INCOMPLETE_RECORD if the record is not completely contained in the current segment
+     */
+    private int tokenizeRecord(int recordStart) {
+        ByteBuffer buffer = this.segment;
+        int limit = buffer.limit();
+        boolean endOfFile = this.segmentStart + limit == this.fileSize;
+        byte separator = (byte) this.columnSeparator;
+        byte quote = (byte) this.quoteCharacter;
+        byte escape = (byte) ESCAPE_CHARACTER;
+
+        this.numberOfValueBounds = 0;
+        int idx = recordStart;
+        while (true) {
+            int valueStart = idx;
+            boolean encoded = false;
+            boolean inQuotes = false;
+            if (idx < limit && buffer.get(idx) == quote) {
+                encoded = true;
+                inQuotes = true;
+                idx++;
+            }
+
+            // scan up to the end of the value, characters behind a closing quote belong to the value as well
+            while (true) {
+                if (idx >= limit) {
+                    if (!endOfFile) {
+                        return INCOMPLETE_RECORD;
+                    }
+                    this.addValueBounds(valueStart, idx, encoded);
+                    return idx;
+                }
+                byte b = buffer.get(idx);
+                if (b == escape) {
+                    if (idx + 1 >= limit && !endOfFile) {
+                        return INCOMPLETE_RECORD;
+                    }
+                    encoded = true;
+                    idx += idx + 1 < limit && (buffer.get(idx + 1) == quote || buffer.get(idx + 1) == escape) ? 2 : 1;
+                } else if (inQuotes) {
+                    if (b == quote) {
+                        if (idx + 1 >= limit && !endOfFile) {
+                            return INCOMPLETE_RECORD;
+                        }
+                        inQuotes = idx + 1 < limit && buffer.get(idx + 1) == quote;
+                        idx += inQuotes ? 2 : 1;
+                    } else {
+                        idx++;
+                    }
+                } else if (b == separator) {
+                    this.addValueBounds(valueStart, idx, encoded);
+                    idx++;
+                    break;
+                } else if (b == LINE_FEED) {
+                    this.addValueBounds(valueStart, idx, encoded);
+                    return idx + 1;
+                } else if (b == CARRIAGE_RETURN) {
+                    if (idx + 1 >= limit && !endOfFile) {
+                        return INCOMPLETE_RECORD;
+                    }
+                    this.addValueBounds(valueStart, idx, encoded);
+                    return idx + 1 < limit && buffer.get(idx + 1) == LINE_FEED ? idx + 2 : idx + 1;
+                } else {
+                    idx++;
+                }
+            }
+        }
+    }
+
+    private void addValueBounds(int start, int end, boolean encoded) {
+        if (this.numberOfValueBounds == this.valueBounds.length) {
+            this.valueBounds = Arrays.copyOf(this.valueBounds, this.valueBounds.length * 2);
+        }
+        this.valueBounds[this.numberOfValueBounds++] = encoded ? ~start : start;
+        this.valueBounds[this.numberOfValueBounds++] = end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.sequentialReader != null) {
+            this.sequentialReader.close();
+        } else {
+            // records read before keep the mapped segments, they stay valid after closing the channel
+            this.channel.close();
+        }
+    }
+
+    @Override
+    public ByteOrderMark getBom() {
+        return this.fileUtil.getBom();
+    }
+
+    @Override
+    public void resetReader() throws IOException {
+        close();
+
+        this.initializeReader();
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import com.github.jep42.easycsvmap.csv.api.CSVRecord;
+import com.github.jep42.easycsvmap.util.MemoryEstimate;
+
+/**
+ * Record of a {@link MappedCSVReader}. The record only knows the byte ranges of its values within the mapped file, a value is decoded
+ * on first access and cached afterwards. Records may be read by several threads at once, e.g. via copies of a
+ * cached CSV.
+ */
+final class MappedCSVRecord implements CSVRecord {
+
+    private final ByteBuffer buffer;
+
+    private final long sourceStart;
+
+    private final long sourceEnd;
+
+    /*
+     * start (inclusive) and end (exclusive) of each value, the start is stored as ~start if the value contains quote or escape characters
+     */
+    private final int[] valueBounds;
+
+    private final Charset charset;
+
+    private final char quoteCharacter;
+
+    private final char escapeCharacter;
+
+    /*
+     * values decoded so far, strings are immutable and may be published without synchronization. Concurrent first accesses may each
+     * create an array, the values of the losing array are decoded again on demand.
+     */
+    private volatile String[] values;
+
+
+    MappedCSVRecord(ByteBuffer buffer, long sourceStart, long sourceEnd, int[] valueBounds, Charset charset, char quoteCharacter,
+            char escapeCharacter) {
+        this.buffer = buffer;
+        this.sourceStart = sourceStart;
+        this.sourceEnd = sourceEnd;
+        this.valueBounds = valueBounds;
+        this.charset = charset;
+        this.quoteCharacter = quoteCharacter;
+        this.escapeCharacter = escapeCharacter;
+    }
+
+    @Override
+    public boolean isDecodedOnAccess() {
+        return true;
+    }
+
+    @Override
+    public long getSourceStart() {
+        return this.sourceStart;
+    }
+
+    @Override
+    public long getSourceEnd() {
+        return this.sourceEnd;
+    }
+
+    /**
+     * The mapped file is not part of the heap, only the value bounds and the values decoded so far are.
+     */
+    @Override
+    public long getRetainedHeapEstimate() {
+        // 5 references/chars and 2 longs
+        return MemoryEstimate.ofObject(5 * MemoryEstimate.REFERENCE + 2 * 8) + MemoryEstimate.ofArray(this.valueBounds.length, 4)
+                + MemoryEstimate.ofStrings(this.values);
+    }
+
+    @Override
+    public int size() {
+        return this.valueBounds.length / 2;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= this.size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for a record with " + this.size() + " values");
+        }
+        String[] values = this.values;
+        if (values == null) {
+            values = new String[this.size()];
+            this.values = values;
+        }
+        String value = values[index];
+        if (value == null) {
+            value = this.decode(index);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes all values without caching them, the caller keeps the returned array anyway or uses it just once (e.g. to write the CSV).
+     */
+    @Override
+    public String[] toArray() {
+        String[] values = this.values;
+        String[] array = new String[this.size()];
+        for (int index = 0; index < array.length; index++) {
+            array[index] = values != null && values[index] != null ? values[index] : this.decode(index);
+        }
+        return array;
+    }
+
+    private String decode(int index) {
+        int start = this.valueBounds[2 * index];
+        int end = this.valueBounds[2 * index + 1];
+        boolean encoded = start < 0;
+        if (encoded) {
+            start = ~start;
+        }
+
+        byte[] bytes = new byte[end - start];
+        ByteBuffer value = this.buffer.duplicate();
+        value.position(start);
+        value.get(bytes);
+        String rawValue = new String(bytes, this.charset);
+
+        return encoded ? this.unquote(rawValue) : rawValue;
+    }
+
+    /*
+     * Removes enclosing quotes and resolves doubled quote characters as well as escape sequences. Line breaks within quotes are
+     * normalized to \n, just like the opencsv reader does.
+     */
+    private String unquote(String rawValue) {
+        boolean quotedValue = !rawValue.isEmpty() && rawValue.charAt(0) == this.quoteCharacter;
+        boolean inQuotes = false;
+        int length = rawValue.length();
+        StringBuilder value = new StringBuilder(length);
+        for (int idx = 0; idx < length; idx++) {
+            char c = rawValue.charAt(idx);
+            char next = idx + 1 < length ? rawValue.charAt(idx + 1) : 0;
+            if (c == this.escapeCharacter && (next == this.quoteCharacter || next == this.escapeCharacter)) {
+                value.append(next);
+                idx++;
+            } else if (quotedValue && c == this.quoteCharacter) {
+                if (inQuotes && next == this.quoteCharacter) {
+                    value.append(next);
+                    idx++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (inQuotes && c == '\r') {
+                value.append('\n');
+                if (next == '\n') {
+                    idx++;
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+
+}
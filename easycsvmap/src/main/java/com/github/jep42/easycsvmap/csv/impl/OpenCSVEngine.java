@@ -0,0 +1,43 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.ByteOrderMark;
+
+import com.github.jep42.easycsvmap.core.CSVContext;
+import com.github.jep42.easycsvmap.csv.api.CSVEngine;
+import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
+import com.github.jep42.easycsvmap.csv.api.CSVFileWriter;
+
+/**
+ * Engine based on opencsv, see {@link CSVContext#ENGINE_OPENCSV}. Large files are tokenized concurrently if parallel parsing is enabled.
+ * Files are written via {@link ChannelCSVWriter}, which produces the same output as the opencsv writer.
+ */
+public class OpenCSVEngine implements CSVEngine {
+
+    @Override
+    public String getName() {
+        return CSVContext.ENGINE_OPENCSV;
+    }
+
+    @Override
+    public CSVFileReader createReader(File csvFile, CSVContext csvContext) throws IOException {
+        if (csvContext.isParallelParsing()) {
+            return new ParallelOpenCSVReader(csvFile, csvContext.getColumnSeparator(), csvContext.getQuoteCharacter());
+        }
+        return new OpenCSVReader(csvFile, csvContext.getColumnSeparator(), csvContext.getQuoteCharacter());
+    }
+
+    @Override
+    public CSVFileWriter createWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException {
+        return new ChannelCSVWriter(targetPath, bom, csvContext.getColumnSeparator(), csvContext.getQuoteCharacter(), csvContext.getLineEnd());
+    }
+
+    @Override
+    public CSVFileWriter createAppendingWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException {
+        return new ChannelCSVWriter(targetPath, bom, csvContext.getColumnSeparator(), csvContext.getQuoteCharacter(), csvContext.getLineEnd(),
+                true);
+    }
+
+}
@@ -2,7 +2,6 @@ package com.github.jep42.easycsvmap.csv.impl;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.StringReader;
 
 import org.apache.commons.io.ByteOrderMark;
 
@@ -34,8 +33,11 @@ public class OpenCSVReader implements CSVFileReader {
 
     }
 
-    private void initializeReader() {
-        this.csvReader = new CSVReader(new StringReader(fileUtil.getContent()), columnSeparator, quoteCharacter);
+    /*
+     * The content is streamed from the file, so it never has to be held in memory as a whole
+     */
+    private void initializeReader() throws IOException {
+        this.csvReader = new CSVReader(this.fileUtil.openReader(), this.columnSeparator, this.quoteCharacter);
     }
 
     @Override
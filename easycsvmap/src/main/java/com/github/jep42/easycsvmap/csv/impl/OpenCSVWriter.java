@@ -9,6 +9,12 @@ import com.github.jep42.easycsvmap.csv.api.CSVFileWriter;
 
 import au.com.bytecode.opencsv.CSVWriter;
 
+/**
+ * CSVFileWriter based on the opencsv {@link CSVWriter}.
+ *
+ * @deprecated replaced by {@link ChannelCSVWriter}, which writes the same output and supports copying unchanged rows
+ */
+@Deprecated
 public class OpenCSVWriter implements CSVFileWriter {
 
     private CSVWriter csvWriter;
@@ -0,0 +1,327 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.apache.commons.io.ByteOrderMark;
+
+import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
+import com.github.jep42.easycsvmap.util.FileUtil;
+
+import au.com.bytecode.opencsv.CSVParser;
+import au.com.bytecode.opencsv.CSVReader;
+
+/**
+ * CSVFileReader which splits the CSV file into byte ranges and tokenizes these ranges concurrently on the common fork-join pool. The rows
+ * are returned in the order of the file, exactly as {@link OpenCSVReader} would return them.
+ * <p>
+ * The split positions are moved to record boundaries, i.e. to the first line feed behind the split position which is not part of a quoted
+ * value. Whether a position is part of a quoted value follows from the number of quote characters in front of it, these are counted
+ * concurrently for all ranges as well. If the file cannot be split reliably (charset which is not ASCII compatible, quote characters
+ * escaped by the escape character) or if it is too small to benefit from splitting, it is read sequentially via {@link OpenCSVReader}.
+ */
+public class ParallelOpenCSVReader implements CSVFileReader {
+
+    /**
+     * Files smaller than two ranges of this size are read sequentially.
+     */
+    public static final long MIN_RANGE_SIZE = 4L * 1024 * 1024;
+
+    private static final long MAX_RANGE_SIZE = 256L * 1024 * 1024;
+
+    /*
+     * more ranges than processors, so that ranges with expensive content can be balanced
+     */
+    private static final int RANGES_PER_PROCESSOR = 4;
+
+    private static final char LINE_FEED = '\n';
+
+    private static final char ESCAPE_CHARACTER = CSVParser.DEFAULT_ESCAPE_CHARACTER;
+
+    private final File csvFile;
+
+    private final char columnSeparator;
+
+    private final char quoteCharacter;
+
+    private final long minRangeSize;
+
+    private FileUtil fileUtil;
+
+    private FileChannel channel;
+
+    private CSVFileReader sequentialReader;
+
+    private List<ForkJoinTask<List<String[]>>> rangeTasks;
+
+    private int nextRange;
+
+    private Iterator<String[]> currentRows;
+
+
+    public ParallelOpenCSVReader(File csvFile, char columnSeparator, char quoteCharacter) throws IOException {
+        this(csvFile, columnSeparator, quoteCharacter, MIN_RANGE_SIZE);
+    }
+
+    ParallelOpenCSVReader(File csvFile, char columnSeparator, char quoteCharacter, long minRangeSize) throws IOException {
+        super();
+
+        this.csvFile = csvFile;
+
+        this.columnSeparator = columnSeparator;
+
+        this.quoteCharacter = quoteCharacter;
+
+        this.minRangeSize = minRangeSize;
+
+        this.initializeReader();
+    }
+
+    private void initializeReader() throws IOException {
+        this.fileUtil = FileUtil.getFileUtilFor(this.csvFile.getAbsolutePath());
+        this.rangeTasks = Collections.emptyList();
+        this.nextRange = 0;
+        this.currentRows = Collections.emptyIterator();
+        this.sequentialReader = null;
+
+        if (this.isSplittable()) {
+            this.channel = FileChannel.open(this.csvFile.toPath(), StandardOpenOption.READ);
+            long[] rangeBounds = this.findRangeBounds();
+            if (rangeBounds != null) {
+                this.rangeTasks = this.submitRanges(rangeBounds);
+                return;
+            }
+            this.channel.close();
+            this.channel = null;
+        }
+
+        this.sequentialReader = new OpenCSVReader(this.csvFile, this.columnSeparator, this.quoteCharacter);
+    }
+
+    private boolean isSplittable() {
+        return ByteScanSupport.isByteScannable(this.fileUtil.getCharset(), LINE_FEED, this.quoteCharacter, ESCAPE_CHARACTER);
+    }
+
+    /*
+     * Returns the start positions of all ranges followed by the end of the file or null if the file should be read sequentially
+     */
+    private long[] findRangeBounds() throws IOException {
+        long start = this.fileUtil.getBom() == null ? 0 : this.fileUtil.getBom().length();
+        long size = this.channel.size();
+
+        long rangeSize = Math.max(this.minRangeSize, (size - start) / (ForkJoinPool.getCommonPoolParallelism() * RANGES_PER_PROCESSOR));
+        rangeSize = Math.min(rangeSize, MAX_RANGE_SIZE);
+        int numberOfRanges = (int) ((size - start + rangeSize - 1) / rangeSize);
+        if (numberOfRanges < 2) {
+            return null;
+        }
+
+        List<ForkJoinTask<RangeScan>> scanTasks = new ArrayList<>(numberOfRanges);
+        for (int rangeIndex = 0; rangeIndex < numberOfRanges; rangeIndex++) {
+            long from = start + rangeIndex * rangeSize;
+            long to = Math.min(from + rangeSize, size);
+            scanTasks.add(ForkJoinPool.commonPool().submit(() -> this.scanRange(from, to)));
+        }
+
+        // the quote state at the beginning of a range is known once all ranges in front of it were scanned
+        long[] rangeBounds = new long[numberOfRanges + 1];
+        int numberOfBounds = 0;
+        rangeBounds[numberOfBounds++] = start;
+        boolean quoted = false;
+        boolean boundPending = false;
+        for (ForkJoinTask<RangeScan> scanTask : scanTasks) {
+            RangeScan scan = getResult(scanTask);
+            if (scan.escapedQuote) {
+                return null;
+            }
+            if (boundPending) {
+                long recordStart = quoted ? scan.recordStartIfQuoted : scan.recordStartIfUnquoted;
+                if (recordStart >= 0) {
+                    rangeBounds[numberOfBounds++] = recordStart;
+                    boundPending = false;
+                }
+            }
+            quoted ^= scan.oddNumberOfQuotes;
+            boundPending = true;
+        }
+        if (rangeBounds[numberOfBounds - 1] < size) {
+            rangeBounds[numberOfBounds++] = size;
+        }
+
+        for (int boundIndex = 1; boundIndex < numberOfBounds; boundIndex++) {
+            if (rangeBounds[boundIndex] - rangeBounds[boundIndex - 1] > Integer.MAX_VALUE) {
+                // a single record spans too many ranges to be mapped at once
+                return null;
+            }
+        }
+        return Arrays.copyOf(rangeBounds, numberOfBounds);
+    }
+
+    private RangeScan scanRange(long from, long to) throws IOException {
+        ByteBuffer buffer = this.channel.map(MapMode.READ_ONLY, from, to - from);
+        byte quote = (byte) this.quoteCharacter;
+        byte escape = (byte) ESCAPE_CHARACTER;
+
+        RangeScan scan = new RangeScan();
+        boolean escapePending = false;
+        int length = buffer.limit();
+        for (int idx = 0; idx < length; idx++) {
+            byte b = buffer.get(idx);
+            if (escapePending) {
+                escapePending = false;
+                if (b == quote || b == escape) {
+                    scan.escapedQuote |= b == quote;
+                    continue;
+                }
+            }
+            if (b == escape) {
+                // an escape character as very first byte may continue an escape sequence of the previous range, don't guess
+                scan.escapedQuote |= idx == 0;
+                escapePending = true;
+            } else if (b == quote) {
+                scan.oddNumberOfQuotes = !scan.oddNumberOfQuotes;
+            } else if (b == LINE_FEED) {
+                if (scan.oddNumberOfQuotes) {
+                    scan.recordStartIfQuoted = scan.recordStartIfQuoted < 0 ? from + idx + 1 : scan.recordStartIfQuoted;
+                } else {
+                    scan.recordStartIfUnquoted = scan.recordStartIfUnquoted < 0 ? from + idx + 1 : scan.recordStartIfUnquoted;
+                }
+            }
+        }
+        // an escape character as very last byte may escape the first byte of the next range, don't guess either
+        scan.escapedQuote |= escapePending;
+        return scan;
+    }
+
+    private List<ForkJoinTask<List<String[]>>> submitRanges(long[] rangeBounds) {
+        List<ForkJoinTask<List<String[]>>> tasks = new ArrayList<>(rangeBounds.length - 1);
+        for (int boundIndex = 1; boundIndex < rangeBounds.length; boundIndex++) {
+            long from = rangeBounds[boundIndex - 1];
+            long to = rangeBounds[boundIndex];
+            tasks.add(ForkJoinPool.commonPool().submit(() -> this.readRange(from, to)));
+        }
+        return tasks;
+    }
+
+    private List<String[]> readRange(long from, long to) throws IOException {
+        ByteBuffer buffer = this.channel.map(MapMode.READ_ONLY, from, to - from);
+        List<String[]> rows = new ArrayList<>();
+        try (CSVReader csvReader = new CSVReader(new InputStreamReader(new ByteBufferInputStream(buffer), this.fileUtil.getCharset()),
+                this.columnSeparator, this.quoteCharacter)) {
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public String[] readNextLine() throws IOException {
+        if (this.sequentialReader != null) {
+            return this.sequentialReader.readNextLine();
+        }
+
+        while (!this.currentRows.hasNext()) {
+            if (this.nextRange == this.rangeTasks.size()) {
+                return null;
+            }
+            this.currentRows = getResult(this.rangeTasks.get(this.nextRange)).iterator();
+            // release the rows of the range as soon as they were consumed
+            this.rangeTasks.set(this.nextRange++, null);
+        }
+        return this.currentRows.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.sequentialReader != null) {
+            this.sequentialReader.close();
+        } else {
+            for (int rangeIndex = this.nextRange; rangeIndex < this.rangeTasks.size(); rangeIndex++) {
+                this.rangeTasks.get(rangeIndex).cancel(false);
+            }
+            this.channel.close();
+        }
+    }
+
+    @Override
+    public ByteOrderMark getBom() {
+        return this.fileUtil.getBom();
+    }
+
+    @Override
+    public void resetReader() throws IOException {
+        close();
+
+        this.initializeReader();
+    }
+
+    private static <T> T getResult(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing the CSV file");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /*
+     * Result of scanning a range: the quote parity at its end and the first record start for both possible quote states at its beginning
+     */
+    private static class RangeScan {
+
+        private boolean oddNumberOfQuotes;
+
+        private long recordStartIfUnquoted = -1;
+
+        private long recordStartIfQuoted = -1;
+
+        private boolean escapedQuote;
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+
+}
@@ -1,12 +1,10 @@
 package com.github.jep42.easycsvmap.selector;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.github.jep42.easycsvmap.core.CSVContext;
 import com.github.jep42.easycsvmap.core.CSVMapException;
 import com.github.jep42.easycsvmap.core.InvalidSelectorFormatException;
 import com.github.jep42.easycsvmap.selector.api.CSVSelector;
@@ -15,38 +13,106 @@ import com.github.jep42.easycsvmap.selector.impl.RowIndexSelector;
 
 public final class CSVSelectorFactory {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(CSVSelectorFactory.class);
+    private static final char ROW_INDEX_SELECTOR_START = '{';
 
+    private static final char REGEXP_ROW_SELECTOR_START = '[';
 
-    private CSVSelectorFactory() {}
+    /**
+     * Maximum number of parsed selectors kept in the selector cache
+     */
+    public static final int SELECTOR_CACHE_SIZE = 1024;
 
-    public static CSVSelector getCSVSelector(String csvSelector, List<Map<String, String>> csvMap, CSVContext csvContext) {
+    private static final Map<String, CSVSelector> SELECTOR_CACHE = Collections.synchronizedMap(new SelectorCache());
 
-        CSVSelector selector = new RowIndexSelector(csvSelector, csvMap, csvContext);
+    private static final AtomicLong CACHE_HITS = new AtomicLong();
+
+    private static final AtomicLong CACHE_MISSES = new AtomicLong();
 
-        if (CSVSelectorFactory.parseSelectorAndCheckIfValid(selector)) {
-            return selector;
-        }
 
-        selector = new RegExpRowSelector(csvSelector, csvMap, csvContext);
-        if (CSVSelectorFactory.parseSelectorAndCheckIfValid(selector)) {
+    private CSVSelectorFactory() {}
+
+    /**
+     * Retrieves the parsed selector for the given selector expression. Parsed selectors do not depend on a particular CSV, so they are kept in
+     * a process wide LRU cache and reused for subsequent calls with the same selector expression.
+     *
+     * @param csvSelector the selector expression
+     * @return the parsed selector
+     * @throws CSVMapException if the given selector expression is not supported
+     */
+    public static CSVSelector getCSVSelector(String csvSelector) {
+        CSVSelector selector = SELECTOR_CACHE.get(csvSelector);
+        if (selector != null) {
+            CACHE_HITS.incrementAndGet();
             return selector;
         }
 
-        throw new CSVMapException("The given CSV selector " + csvSelector + " is not supported.");
+        CACHE_MISSES.incrementAndGet();
+        selector = CSVSelectorFactory.parseCSVSelector(csvSelector);
+        SELECTOR_CACHE.put(csvSelector, selector);
+        return selector;
     }
 
-    private static boolean parseSelectorAndCheckIfValid(CSVSelector selector) {
+    private static CSVSelector parseCSVSelector(String csvSelector) {
+        CSVSelector selector = CSVSelectorFactory.createSelector(csvSelector);
+
         try {
             selector.parse();
         } catch (InvalidSelectorFormatException e) {
-            CSVSelectorFactory.LOGGER.debug("The given selector is not a valid " + selector.getClass().getName(), e);
-            return false;
+            throw new CSVMapException("The given CSV selector " + csvSelector + " is not supported: " + e.getMessage());
         }
-        return true;
+        return selector;
     }
 
+    /*
+     * the type of the selector is determined by the first character of its row specification, so there is no need to try each selector type
+     */
+    private static CSVSelector createSelector(String csvSelector) {
+        char firstCharacter = csvSelector.isEmpty() ? 0 : csvSelector.charAt(0);
+        switch (firstCharacter) {
+            case ROW_INDEX_SELECTOR_START:
+                return new RowIndexSelector(csvSelector);
+            case REGEXP_ROW_SELECTOR_START:
+                return new RegExpRowSelector(csvSelector);
+            default:
+                throw new CSVMapException("The given CSV selector " + csvSelector + " is not supported.");
+        }
+    }
 
+    /**
+     * @return number of selector lookups which were served from the selector cache
+     */
+    public static long getCacheHits() {
+        return CACHE_HITS.get();
+    }
 
+    /**
+     * @return number of selector lookups which required parsing the selector
+     */
+    public static long getCacheMisses() {
+        return CACHE_MISSES.get();
+    }
+
+    /**
+     * Removes all parsed selectors from the selector cache and resets the hit/miss counters.
+     */
+    public static void clearCache() {
+        SELECTOR_CACHE.clear();
+        CACHE_HITS.set(0);
+        CACHE_MISSES.set(0);
+    }
+
+    private static final class SelectorCache extends LinkedHashMap<String, CSVSelector> {
+
+        private static final long serialVersionUID = -3815930712264104325L;
+
+        SelectorCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CSVSelector> eldest) {
+            return this.size() > SELECTOR_CACHE_SIZE;
+        }
+    }
 
 }
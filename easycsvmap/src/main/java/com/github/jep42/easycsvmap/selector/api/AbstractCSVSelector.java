@@ -1,50 +1,156 @@
 package com.github.jep42.easycsvmap.selector.api;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.function.IntConsumer;
 
 import javax.annotation.Nonnull;
 
 import com.github.jep42.easycsvmap.core.CSVContext;
+import com.github.jep42.easycsvmap.core.CSVMapException;
 import com.github.jep42.easycsvmap.core.InvalidSelectorValueException;
+import com.github.jep42.easycsvmap.store.CSVRowStore;
 
 
 public abstract class AbstractCSVSelector implements CSVSelector {
 
-    protected String selector;
+    protected final String selector;
 
-    protected CSVContext csvContext;
+    protected String columnSpec;
 
-    protected List<Map<String, String>> csvMap;
 
-
-    public AbstractCSVSelector(String selector, List<Map<String, String>> csvMap, CSVContext csvContext) {
+    public AbstractCSVSelector(String selector) {
         this.selector = selector;
-        this.csvMap = csvMap;
-        this.csvContext = csvContext;
+    }
+
+    /**
+     * Calls the given consumer for each row selected by this selector, in ascending order of the row index. The evaluation stops as soon
+     * as the consumer was called for the given maximum number of rows.
+     *
+     * @param rowStore
+     * @param maxRows the maximum number of rows to visit, {@link CSVSelector#ALL_ROWS} to visit all selected rows
+     * @param rowConsumer
+     */
+    protected abstract void visitSelectedRows(CSVRowStore rowStore, int maxRows, IntConsumer rowConsumer);
+
+    @Override
+    @Nonnull
+    public Map<Integer, String> getValues(CSVRowStore rowStore) {
+        return this.getFirstValues(rowStore, ALL_ROWS);
+    }
+
+    @Override
+    @Nonnull
+    public Map<Integer, String> getFirstValues(CSVRowStore rowStore, int maxRows) {
+        RowValueMap result = new RowValueMap();
+
+        // resolve the column once, rows are accessed via ordinal afterwards
+        int columnSpecIndex = rowStore.getColumnIndex(this.columnSpec);
+        this.visitSelectedRows(rowStore, maxRows,
+                rowIndex -> result.add(rowIndex, this.getValueFromRow(rowStore, rowIndex, columnSpecIndex)));
+
+        return result;
+    }
+
+    @Override
+    public int count(CSVRowStore rowStore) {
+        int columnSpecIndex = rowStore.getColumnIndex(this.columnSpec);
+        int[] count = { 0 };
+        this.visitSelectedRows(rowStore, ALL_ROWS, rowIndex -> {
+            this.validateValueExists(rowStore, rowIndex, columnSpecIndex);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    @Override
+    public boolean exists(CSVRowStore rowStore) {
+        int columnSpecIndex = rowStore.getColumnIndex(this.columnSpec);
+        boolean[] exists = { false };
+        this.visitSelectedRows(rowStore, 1, rowIndex -> {
+            this.validateValueExists(rowStore, rowIndex, columnSpecIndex);
+            exists[0] = true;
+        });
+        return exists[0];
     }
 
     @Override
-    public void setSelector(String csvSelectorString) {
-        this.selector = csvSelectorString;
+    public String getRowSpec() {
+        return this.selector.substring(0, this.selector.length() - this.columnSpec.length() - 1);
     }
 
     @Override
-    public void setCSVContext(CSVContext csvContext) {
-        this.csvContext = csvContext;
+    @Nonnull
+    public int[] getSelectedRows(CSVRowStore rowStore, int maxRows) {
+        int[][] selectedRows = { new int[16] };
+        int[] numberOfRows = { 0 };
+        this.visitSelectedRows(rowStore, maxRows, rowIndex -> {
+            if (numberOfRows[0] == selectedRows[0].length) {
+                selectedRows[0] = Arrays.copyOf(selectedRows[0], numberOfRows[0] * 2);
+            }
+            selectedRows[0][numberOfRows[0]++] = rowIndex;
+        });
+        return Arrays.copyOf(selectedRows[0], numberOfRows[0]);
     }
 
     @Override
-    public void setCSVMap(List<Map<String, String>> csvMap) {
-        this.csvMap = csvMap;
+    @Nonnull
+    public Map<Integer, String> getValues(CSVRowStore rowStore, int[] selectedRows) {
+        RowValueMap result = new RowValueMap();
+
+        int columnSpecIndex = rowStore.getColumnIndex(this.columnSpec);
+        for (int rowIndex : selectedRows) {
+            result.add(rowIndex, this.getValueFromRow(rowStore, rowIndex, columnSpecIndex));
+        }
+
+        return result;
+    }
+
+    @Override
+    public int setValues(CSVRowStore rowStore, CSVContext csvContext, String value) {
+        int[] columnSpecIndex = { rowStore.getColumnIndex(this.columnSpec) };
+        int[] affectedRows = { 0 };
+
+        this.visitSelectedRows(rowStore, ALL_ROWS, rowIndex -> {
+            this.validateWriteOperation(csvContext, rowIndex);
+            if (columnSpecIndex[0] < 0) {
+                // unknown column, the row store adds it for this particular row
+                rowStore.setValue(rowIndex, this.columnSpec, value);
+                columnSpecIndex[0] = rowStore.getColumnIndex(this.columnSpec);
+            } else {
+                rowStore.setValue(rowIndex, columnSpecIndex[0], value);
+            }
+            affectedRows[0]++;
+        });
+
+        return affectedRows[0];
     }
 
-    protected String getValueFromRow(@Nonnull Map<String, String> row, @Nonnull String columnSpec) {
-        String value = row.get(columnSpec);
+    protected String getValueFromRow(CSVRowStore rowStore, int rowIndex, int columnSpecIndex) {
+        String value = rowStore.getValue(rowIndex, columnSpecIndex);
         if (value == null) {
-            throw new InvalidSelectorValueException("The column spec " + columnSpec + " of the given selector does not match an exsiting column");
+            throw this.createUnknownColumnSpecException();
         }
         return value;
     }
 
+    /*
+     * same check as getValueFromRow, but without decoding the value
+     */
+    private void validateValueExists(CSVRowStore rowStore, int rowIndex, int columnSpecIndex) {
+        if (!rowStore.hasValue(rowIndex, columnSpecIndex)) {
+            throw this.createUnknownColumnSpecException();
+        }
+    }
+
+    private InvalidSelectorValueException createUnknownColumnSpecException() {
+        return new InvalidSelectorValueException("The column spec " + this.columnSpec + " of the given selector does not match an exsiting column");
+    }
+
+    private void validateWriteOperation(CSVContext csvContext, int rowIndex) {
+        if (rowIndex == csvContext.getHeaderRowIndex()) {
+            throw new CSVMapException("It is not allowed to change values of the header row (row index " + rowIndex + ")");
+        }
+    }
+
 }
@@ -1,20 +1,22 @@
 package com.github.jep42.easycsvmap.selector.api;
 
-import java.util.List;
 import java.util.Map;
 
 import com.github.jep42.easycsvmap.core.CSVContext;
 import com.github.jep42.easycsvmap.core.InvalidSelectorFormatException;
 import com.github.jep42.easycsvmap.core.InvalidSelectorValueException;
+import com.github.jep42.easycsvmap.store.CSVRowStore;
 
+/**
+ * A CSV selector selects cells of a CSV. Once parsed a selector does not change anymore and does not depend on a particular CSV, hence it can be
+ * evaluated against any number of row stores, also from different threads.
+ */
 public interface CSVSelector {
 
-
-    void setSelector(String csvSelectorString);
-
-    void setCSVContext(CSVContext csvContext);
-
-    void setCSVMap(List<Map<String, String>> csvMap);
+    /**
+     * Row limit to select all rows matching a selector
+     */
+    int ALL_ROWS = Integer.MAX_VALUE;
 
     /**
      * Parse the selector so it can be used to get/set values.
@@ -24,18 +26,71 @@ public interface CSVSelector {
     public void parse() throws InvalidSelectorFormatException;
 
     /**
-     * Retrieves cell values from the given map according to the given selector and returns as map in which the key is the row index.
-     * The elements of the map are order by the key.
+     * Retrieves cell values from the given row store according to the selector and returns as map in which the key is the row index.
+     * The elements of the map are order by the key, the map is read-only.
+     * @param rowStore the rows to evaluate the selector against
+     * @throws InvalidSelectorValueException if the given selector does not match one of the existing columns
+     * @return
+     */
+    Map<Integer, String> getValues(CSVRowStore rowStore);
+
+    /**
+     * Same as {@link #getValues(CSVRowStore)}, but stops evaluating the selector as soon as the given number of rows matched. Hence, the
+     * result contains the values of the first matching rows only.
+     * @param rowStore the rows to evaluate the selector against
+     * @param maxRows the maximum number of rows to select, {@link #ALL_ROWS} to select all matching rows
+     * @throws InvalidSelectorValueException if the given selector does not match one of the existing columns
+     * @return
+     */
+    Map<Integer, String> getFirstValues(CSVRowStore rowStore, int maxRows);
+
+    /**
+     * Counts the rows selected by the selector without retrieving their values.
+     * @param rowStore the rows to evaluate the selector against
+     * @throws InvalidSelectorValueException if rows are selected, but the given selector does not match one of the existing columns
+     * @return the number of selected rows, i.e. the size of the result of {@link #getValues(CSVRowStore)}
+     */
+    int count(CSVRowStore rowStore);
+
+    /**
+     * Checks if the selector selects at least one row, the evaluation stops at the first matching row.
+     * @param rowStore the rows to evaluate the selector against
+     * @throws InvalidSelectorValueException if rows are selected, but the given selector does not match one of the existing columns
+     * @return <code>true</code> if at least one row is selected
+     */
+    boolean exists(CSVRowStore rowStore);
+
+    /**
+     * @return the row specification of the selector, i.e. the selector without the column specification. Selectors with the same row
+     *         specification select the same rows.
+     */
+    String getRowSpec();
+
+    /**
+     * Retrieves the indexes of the rows selected by the selector in ascending order.
+     * @param rowStore the rows to evaluate the selector against
+     * @param maxRows the maximum number of rows to select, {@link #ALL_ROWS} to select all matching rows
+     * @return
+     */
+    int[] getSelectedRows(CSVRowStore rowStore, int maxRows);
+
+    /**
+     * Same as {@link #getValues(CSVRowStore)}, but reads the values of the given rows instead of selecting the rows again. This allows to
+     * select the rows once for several selectors with the same row specification.
+     * @param rowStore the rows to evaluate the selector against
+     * @param selectedRows the result of {@link #getSelectedRows(CSVRowStore, int)} of a selector with the same row specification
      * @throws InvalidSelectorValueException if the given selector does not match one of the existing columns
      * @return
      */
-    Map<Integer, String> getValues();
+    Map<Integer, String> getValues(CSVRowStore rowStore, int[] selectedRows);
 
     /**
-     * Sets values of cells identified by the given selector to the passed value.
+     * Sets values of cells identified by the selector to the passed value.
+     * @param rowStore the rows to evaluate the selector against
+     * @param csvContext the format settings of the CSV
      * @param value
      * @return the number of updated rows
      */
-    int setValues(String value);
+    int setValues(CSVRowStore rowStore, CSVContext csvContext, String value);
 
 }
@@ -0,0 +1,130 @@
+package com.github.jep42.easycsvmap.selector.api;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only result of a selector: the selected values keyed by their row index.
+ * <p>
+ * Row indexes and values are kept in two parallel arrays, rows have to be added in ascending order. Hence,
+ * iteration follows the row index just like a TreeMap, while lookups are done via binary search on primitive keys.
+ */
+final class RowValueMap extends AbstractMap<Integer, String> {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] rowIndexes = new int[INITIAL_CAPACITY];
+
+    private String[] values = new String[INITIAL_CAPACITY];
+
+    private int size;
+
+
+    void add(int rowIndex, String value) {
+        if (this.size > 0 && rowIndex <= this.rowIndexes[this.size - 1]) {
+            throw new IllegalArgumentException("Rows have to be added in ascending order, row index " + rowIndex);
+        }
+        if (this.size == this.rowIndexes.length) {
+            int newCapacity = this.size * 2;
+            this.rowIndexes = Arrays.copyOf(this.rowIndexes, newCapacity);
+            this.values = Arrays.copyOf(this.values, newCapacity);
+        }
+        this.rowIndexes[this.size] = rowIndex;
+        this.values[this.size] = value;
+        this.size++;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int idx = this.indexOf(key);
+        return idx < 0 ? null : this.values[idx];
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof Integer)) {
+            return -1;
+        }
+        return Arrays.binarySearch(this.rowIndexes, 0, this.size, ((Integer) key).intValue());
+    }
+
+    @Override
+    public Collection<String> values() {
+        return new AbstractCollection<String>() {
+
+            @Override
+            public Iterator<String> iterator() {
+                return new PositionIterator<String>() {
+
+                    @Override
+                    protected String get(int position) {
+                        return RowValueMap.this.values[position];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return RowValueMap.this.size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, String>> entrySet() {
+        return new AbstractSet<Entry<Integer, String>>() {
+
+            @Override
+            public Iterator<Entry<Integer, String>> iterator() {
+                return new PositionIterator<Entry<Integer, String>>() {
+
+                    @Override
+                    protected Entry<Integer, String> get(int position) {
+                        return new SimpleImmutableEntry<>(RowValueMap.this.rowIndexes[position], RowValueMap.this.values[position]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return RowValueMap.this.size;
+            }
+        };
+    }
+
+    private abstract class PositionIterator<T> implements Iterator<T> {
+
+        private int position;
+
+        protected abstract T get(int position);
+
+        @Override
+        public boolean hasNext() {
+            return this.position < RowValueMap.this.size;
+        }
+
+        @Override
+        public T next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.get(this.position++);
+        }
+    }
+
+}
@@ -1,17 +1,12 @@
 package com.github.jep42.easycsvmap.selector.impl;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.function.IntConsumer;
 import java.util.regex.Pattern;
 
-import javax.annotation.Nonnull;
-
-import com.github.jep42.easycsvmap.core.CSVContext;
-import com.github.jep42.easycsvmap.core.CSVMapException;
 import com.github.jep42.easycsvmap.core.InvalidSelectorFormatException;
+import com.github.jep42.easycsvmap.core.InvalidSelectorValueException;
 import com.github.jep42.easycsvmap.selector.api.AbstractCSVSelector;
+import com.github.jep42.easycsvmap.store.CSVRowStore;
 import com.github.jep42.easycsvmap.util.CSVMapUtil;
 
 
@@ -19,15 +14,27 @@ public class RegExpRowSelector extends AbstractCSVSelector {
 
     private static final char FORMAT_SEPARATOR_CHARACTER = '.';
 
-    private String columnSpec;
+    private static final String REGEXP_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private static final String REGEXP_QUANTIFIERS = "?*+{";
 
     private String columnIdentifier;
 
     private Pattern columnRegExp;
 
+    /*
+     * the value a row has to have if the regular expression matches one literal value only, otherwise null
+     */
+    private String literalValue;
+
+    /*
+     * the prefix all values matched by the regular expression start with, null if there is no such prefix
+     */
+    private String literalPrefix;
 
-    public RegExpRowSelector(String selector, List<Map<String, String>> csvMap, CSVContext csvContext) {
-        super(selector, csvMap, csvContext);
+
+    public RegExpRowSelector(String selector) {
+        super(selector);
     }
 
 
@@ -40,9 +47,39 @@ public class RegExpRowSelector extends AbstractCSVSelector {
         new RegExpRowValidator(selectorFragments[0]).validate();
         new ColumnSpecFormatValidator(selectorFragments[1]).validate();
 
+        String[] rowSpecFragments = CSVMapUtil.removeBracesFromString(selectorFragments[0]).split("=", 2);
+        this.columnIdentifier = rowSpecFragments[0];
+        this.columnRegExp = Pattern.compile(rowSpecFragments[1]);
+        this.literalValue = RegExpRowSelector.getLiteralValue(rowSpecFragments[1]);
+        this.literalPrefix = RegExpRowSelector.getLiteralPrefix(rowSpecFragments[1]);
         this.columnSpec = selectorFragments[1];
-        this.columnIdentifier = this.getColumnIdentifier(selectorFragments[0]);
-        this.columnRegExp = this.getColumnRegExpPattern(selectorFragments[0]);
+    }
+
+    /*
+     * Checks if the given regular expression is a plain literal, optionally anchored (e.g. 4711 or ^4711$) and possibly containing escaped
+     * meta characters (e.g. ^www\.foo\.com$). As the whole value has to match the regular expression, such an expression selects exactly
+     * the rows having the literal as value.
+     */
+    static String getLiteralValue(String regExp) {
+        StringBuilder literal = new StringBuilder(regExp.length());
+        int startIndex = regExp.startsWith("^") ? 1 : 0;
+        for (int i = startIndex; i < regExp.length(); i++) {
+            char c = regExp.charAt(i);
+            if (c == '\\') {
+                // a backslash in front of a non-alphanumeric character always escapes this character
+                if (i + 1 == regExp.length() || Character.isLetterOrDigit(regExp.charAt(i + 1))) {
+                    return null;
+                }
+                literal.append(regExp.charAt(++i));
+            } else if (c == '$' && i == regExp.length() - 1) {
+                break;
+            } else if (REGEXP_META_CHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
     }
 
     private String[] getSelectorFragments() {
@@ -57,57 +94,94 @@ public class RegExpRowSelector extends AbstractCSVSelector {
         }
     }
 
-    private Pattern getColumnRegExpPattern(String rowSpec) {
-        String[] rowSpecFragments = CSVMapUtil.removeBracesFromString(rowSpec).split("=", 2);
-        return Pattern.compile(rowSpecFragments[1]);
-    }
 
-    private String getColumnIdentifier(String rowSpec) {
-        String[] rowSpecFragments = CSVMapUtil.removeBracesFromString(rowSpec).split("=", 2);
-        return rowSpecFragments[0];
-    }
+    /*
+     * Determines the literal prefix of the given regular expression (e.g. Ka for ^Ka.*$), which every value matching the expression has to
+     * start with. Expressions with alternatives do not have such a prefix.
+     */
+    static String getLiteralPrefix(String regExp) {
+        if (regExp.indexOf('|') >= 0) {
+            return null;
+        }
 
+        StringBuilder prefix = new StringBuilder();
+        int i = regExp.startsWith("^") ? 1 : 0;
+        while (i < regExp.length()) {
+            char c = regExp.charAt(i);
+            int length = 1;
+            if (c == '\\') {
+                if (i + 1 == regExp.length() || Character.isLetterOrDigit(regExp.charAt(i + 1))) {
+                    break;
+                }
+                c = regExp.charAt(i + 1);
+                length = 2;
+            } else if (REGEXP_META_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            }
 
-    @Override
-    @Nonnull
-    public Map<Integer, String> getValues() {
-        Map<Integer, String> result = new TreeMap<>();
-
-        int rowIndex = 0;
-        for (Iterator<Map<String, String>> iter = this.csvMap.iterator(); iter.hasNext();) {
-            Map<String, String> row = iter.next();
-            String colSelectorValue = row.get(this.columnIdentifier);
-            if (this.columnRegExp.matcher(colSelectorValue).matches()) {
-                result.put(rowIndex, this.getValueFromRow(row, this.columnSpec));
+            // a quantifier makes the preceding character optional or repeatable
+            if (i + length < regExp.length() && REGEXP_QUANTIFIERS.indexOf(regExp.charAt(i + length)) >= 0) {
+                break;
             }
-            rowIndex++;
+            prefix.append(c);
+            i += length;
+        }
+
+        // do not cut a character into halves
+        if (prefix.length() > 0 && Character.isHighSurrogate(prefix.charAt(prefix.length() - 1))) {
+            prefix.setLength(prefix.length() - 1);
         }
+        return prefix.length() > 0 ? prefix.toString() : null;
+    }
 
-        return result;
+    private int getColumnIdentifierIndex(CSVRowStore rowStore) {
+        int columnIdentifierIndex = rowStore.getColumnIndex(this.columnIdentifier);
+        if (columnIdentifierIndex < 0) {
+            throw new InvalidSelectorValueException("The column " + this.columnIdentifier + " of the row specification of the given selector does not match an existing column");
+        }
+        return columnIdentifierIndex;
     }
 
     @Override
-    public int setValues(String value) {
-        int affectedRows = 0;
-        int rowIndex = 0;
-        for (Iterator<Map<String, String>> iter = this.csvMap.iterator(); iter.hasNext();) {
-            Map<String, String> row = iter.next();
-            String colSelectorValue = row.get(this.columnIdentifier);
-            if (this.columnRegExp.matcher(colSelectorValue).matches()) {
-                this.validateWriteOperation(rowIndex);
-                row.put(this.columnSpec, value);
-                affectedRows++;
+    protected void visitSelectedRows(CSVRowStore rowStore, int maxRows, IntConsumer rowConsumer) {
+        int columnIdentifierIndex = this.getColumnIdentifierIndex(rowStore);
+
+        // building an index requires a scan of all rows, if only the first rows are requested a scan stopping at the last of them is cheaper
+        boolean allRows = maxRows == ALL_ROWS;
+        int remainingRows = maxRows;
+
+        if (this.literalValue != null && (allRows || rowStore.hasEqualityIndex(columnIdentifierIndex))) {
+            // no need to match each row, the matching rows can be looked up in the hash index of the column
+            for (int rowIndex : rowStore.getRowsWithValue(columnIdentifierIndex, this.literalValue)) {
+                if (remainingRows-- == 0) {
+                    return;
+                }
+                rowConsumer.accept(rowIndex);
             }
-            rowIndex++;
+            return;
         }
-        return affectedRows;
-    }
 
-    private void validateWriteOperation(int rowIndex) {
-        if (rowIndex == this.csvContext.getHeaderRowIndex()) {
-            throw new CSVMapException("It is not allowed to change values of the header row (row index " + rowIndex + ")");
+        if (this.literalPrefix != null && (allRows || rowStore.hasSortedIndex(columnIdentifierIndex))) {
+            // only rows starting with the prefix can match, they can be looked up in the sorted index of the column
+            for (int rowIndex : rowStore.getRowsWithPrefix(columnIdentifierIndex, this.literalPrefix)) {
+                if (this.columnRegExp.matcher(rowStore.getValue(rowIndex, columnIdentifierIndex)).matches()) {
+                    if (remainingRows-- == 0) {
+                        return;
+                    }
+                    rowConsumer.accept(rowIndex);
+                }
+            }
+            return;
         }
-    }
 
+        int numberOfRows = rowStore.getNumberOfRows();
+        for (int rowIndex = 0; rowIndex < numberOfRows && remainingRows > 0; rowIndex++) {
+            String colSelectorValue = rowStore.getValue(rowIndex, columnIdentifierIndex);
+            if (colSelectorValue != null && this.columnRegExp.matcher(colSelectorValue).matches()) {
+                rowConsumer.accept(rowIndex);
+                remainingRows--;
+            }
+        }
+    }
 
 }
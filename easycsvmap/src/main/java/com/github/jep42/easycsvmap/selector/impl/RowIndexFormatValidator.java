@@ -15,9 +15,9 @@ public class RowIndexFormatValidator {
      * Format of a valid row specification is {rowIndex|rowIndexList}
      * .
      * If list contains just one element this may be the WILDCARD character, otherwise all list items
-     * must be valid integers.
-     * Examples for valid row index specifications: {*}, {1}, {0,1,3,4,5}
-     * Example for invalid row index specifications: {0,1,*}
+     * must be valid integers or ranges of non-negative integers (from-to, both inclusive).
+     * Examples for valid row index specifications: {*}, {1}, {0,1,3,4,5}, {0,100-200}
+     * Example for invalid row index specifications: {0,1,*}, {200-100}
      */
     public void validate() throws InvalidSelectorFormatException {
         if (!this.rowIndexSpec.startsWith("{") || !this.rowIndexSpec.endsWith("}")) {
@@ -34,7 +34,7 @@ public class RowIndexFormatValidator {
         }
 
         for (String listitem : rowIndexList) {
-            if (!CSVMapUtil.isValidInteger(listitem)) {
+            if (!CSVMapUtil.isValidInteger(listitem) && !isValidRowIndexRange(listitem)) {
                 if (RowIndexSelector.ALL_INDEXES_WILCARD_CHARACTER.equals(listitem)) {
                     throw new InvalidSelectorFormatException(
                             "Do not mix-up row indexes and the wilcard character (" + RowIndexSelector.ALL_INDEXES_WILCARD_CHARACTER + ") " + rowIndexList);
@@ -44,4 +44,18 @@ public class RowIndexFormatValidator {
         }
     }
 
+    private static boolean isValidRowIndexRange(String listitem) {
+        int separatorIdx = RowIndexSelector.getRangeSeparatorIndex(listitem);
+        if (separatorIdx == -1) {
+            return false;
+        }
+        String from = listitem.substring(0, separatorIdx);
+        String to = listitem.substring(separatorIdx + 1);
+        return isNonNegativeInteger(from) && isNonNegativeInteger(to) && Integer.parseInt(from) <= Integer.parseInt(to);
+    }
+
+    private static boolean isNonNegativeInteger(String value) {
+        return CSVMapUtil.isValidInteger(value) && Character.isDigit(value.charAt(0));
+    }
+
 }
@@ -1,17 +1,11 @@
 package com.github.jep42.easycsvmap.selector.impl;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
 
-import javax.annotation.Nonnull;
-
-import com.github.jep42.easycsvmap.core.CSVContext;
-import com.github.jep42.easycsvmap.core.CSVMapException;
 import com.github.jep42.easycsvmap.core.InvalidSelectorFormatException;
 import com.github.jep42.easycsvmap.selector.api.AbstractCSVSelector;
+import com.github.jep42.easycsvmap.store.CSVRowStore;
 import com.github.jep42.easycsvmap.util.CSVMapUtil;
 
 
@@ -21,15 +15,16 @@ public class RowIndexSelector extends AbstractCSVSelector {
 
     protected static final Object ALL_INDEXES_WILCARD_CHARACTER = "*";
 
-    private List<Integer> selectedRowIndexList;
-
-    private boolean allRowIndexes;
+    protected static final char RANGE_SEPARATOR_CHARACTER = '-';
 
-    private String columnSpec;
+    /*
+     * the selected rows as sorted, non-overlapping pairs of inclusive bounds [from0, to0, from1, to1, ...]
+     */
+    private int[] selectedRowRanges;
 
 
-    public RowIndexSelector(String selector, List<Map<String, String>> csvMap, CSVContext csvContext) {
-        super(selector, csvMap, csvContext);
+    public RowIndexSelector(String selector) {
+        super(selector);
     }
 
 
@@ -44,8 +39,11 @@ public class RowIndexSelector extends AbstractCSVSelector {
 
         // first part of the selector is the row specification
         String[] rowSpec = CSVMapUtil.removeBracesFromString(selectorFragments[0]).split(",");
-        this.allRowIndexes = rowSpec.length == 1 && ALL_INDEXES_WILCARD_CHARACTER.equals(rowSpec[0]);
-        this.selectedRowIndexList = this.getRowIndexListFromStringArray(rowSpec);
+        if (rowSpec.length == 1 && ALL_INDEXES_WILCARD_CHARACTER.equals(rowSpec[0])) {
+            this.selectedRowRanges = new int[] { 0, Integer.MAX_VALUE };
+        } else {
+            this.selectedRowRanges = getRowRangesFromStringArray(rowSpec);
+        }
 
         // second part of the selector is the column specification
         this.columnSpec = selectorFragments[1];
@@ -66,62 +64,68 @@ public class RowIndexSelector extends AbstractCSVSelector {
         return new String[] { this.selector.substring(0, guessedSeparatorIdx), this.selector.substring(guessedSeparatorIdx + 1) };
     }
 
-    private List<Integer> getRowIndexListFromStringArray(String[] rowSpec) {
-        List<Integer> indexList = new ArrayList<>();
-        for (String idx : rowSpec) {
-            if (!idx.equals(ALL_INDEXES_WILCARD_CHARACTER)) {
-                indexList.add(Integer.parseInt(idx));
+    /*
+     * Compiles the row specification items (single indexes and ranges) into sorted and merged row ranges
+     */
+    private static int[] getRowRangesFromStringArray(String[] rowSpec) {
+        long[] ranges = new long[rowSpec.length];
+        int numberOfRanges = 0;
+        for (String item : rowSpec) {
+            int separatorIdx = getRangeSeparatorIndex(item);
+            int from;
+            int to;
+            if (separatorIdx == -1) {
+                from = Integer.parseInt(item);
+                to = from;
+            } else {
+                from = Integer.parseInt(item.substring(0, separatorIdx));
+                to = Integer.parseInt(item.substring(separatorIdx + 1));
+            }
+            if (to >= 0) {
+                // pack both bounds into one long, so that sorting orders the ranges by their lower bound
+                ranges[numberOfRanges++] = ((long) Math.max(from, 0) << 32) | to;
             }
         }
-        return indexList;
-    }
-
-
-    @Override
-    @Nonnull
-    public Map<Integer, String> getValues() {
-        Map<Integer, String> result = new TreeMap<>();
-        int rowIndex = 0;
-        for (Iterator<Map<String, String>> iter = this.csvMap.iterator(); iter.hasNext();) {
-            Map<String, String> row = iter.next();
-            if (this.isRowSelected(rowIndex)) {
-                result.put(rowIndex, this.getValueFromRow(row, this.columnSpec));
+        Arrays.sort(ranges, 0, numberOfRanges);
+
+        int[] merged = new int[numberOfRanges * 2];
+        int length = 0;
+        for (int i = 0; i < numberOfRanges; i++) {
+            int from = (int) (ranges[i] >>> 32);
+            int to = (int) ranges[i];
+            if (length > 0 && from <= merged[length - 1] + 1L) {
+                merged[length - 1] = Math.max(merged[length - 1], to);
+            } else {
+                merged[length++] = from;
+                merged[length++] = to;
             }
-            rowIndex++;
         }
-
-        return result;
+        return Arrays.copyOf(merged, length);
     }
 
-
-
-    private boolean isRowSelected(int rowIndex) {
-        return this.allRowIndexes || this.selectedRowIndexList.contains(rowIndex);
+    /*
+     * Returns the index of the range separator within the given row specification item or -1 if the item
+     * is a single row index. A leading minus sign is the sign of a single row index.
+     */
+    protected static int getRangeSeparatorIndex(String rowSpecItem) {
+        return rowSpecItem.indexOf(RANGE_SEPARATOR_CHARACTER, 1);
     }
 
+
     @Override
-    public int setValues(String value) {
-        int affectedRows = 0;
-        int rowsIndex = 0;
-        for (Iterator<Map<String, String>> iter = this.csvMap.iterator(); iter.hasNext();) {
-            Map<String, String> row = iter.next();
-            if (this.isRowSelected(rowsIndex)) {
-                this.validateWriteOperation(rowsIndex);
-                row.put(this.columnSpec, value);
-                affectedRows++;
+    protected void visitSelectedRows(CSVRowStore rowStore, int maxRows, IntConsumer rowConsumer) {
+        int lastRowIndex = rowStore.getNumberOfRows() - 1;
+        int remainingRows = maxRows;
+        for (int i = 0; i < this.selectedRowRanges.length && remainingRows > 0; i += 2) {
+            int from = this.selectedRowRanges[i];
+            if (from > lastRowIndex) {
+                return;
+            }
+            int to = Math.min(this.selectedRowRanges[i + 1], lastRowIndex);
+            for (int rowIndex = from; rowIndex <= to && remainingRows > 0; rowIndex++, remainingRows--) {
+                rowConsumer.accept(rowIndex);
             }
-            rowsIndex++;
-        }
-        return affectedRows;
-    }
-
-
-
-    private void validateWriteOperation(int rowsIndex) {
-        if (rowsIndex == this.csvContext.getHeaderRowIndex()) {
-            throw new CSVMapException("It is not allowed to change values of the header row (row index " + rowsIndex + ")");
         }
     }
 
-
 }
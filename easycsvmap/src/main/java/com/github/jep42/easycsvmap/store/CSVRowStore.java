@@ -0,0 +1,429 @@
+package com.github.jep42.easycsvmap.store;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.jep42.easycsvmap.csv.api.CSVRecord;
+import com.github.jep42.easycsvmap.util.MemoryEstimate;
+
+/**
+ * Internal representation of a parsed CSV. The column names are kept once in a header dictionary which maps each name to its column
+ * ordinal, each row is stored as plain array of values indexed by column ordinal. A {@link Map} view of a row is only created if a caller asks for it, see {@link #asMapList()}.
+ * <p>
+ * Rows added as {@link CSVRecord} which decode their values on access are kept as they are, so that only accessed values are ever decoded.
+ * Such a row is replaced by the array of its values as soon as one of its values is changed, hence a row which is still a record is
+ * unmodified (see {@link #getUnmodifiedRecord(int)}).
+ * <p>
+ * A copy of the store (see {@link #copy()}) shares the rows with the original store until either of both changes them. Copies and changes
+ * of the store are synchronized, so a store may be copied while other threads use it.
+ */
+public class CSVRowStore {
+
+    private final int numberOfColumns;
+
+    private final List<String> columnNames;
+
+    private final Map<String, Integer> columnIndexes;
+
+    /*
+     * each row is either a String[] or a CSVRecord which decodes its values on access
+     */
+    private final CopyOnWriteRowList rows;
+
+    /*
+     * rows with values changed since the last call of clearModifiedRows()
+     */
+    private final BitSet modifiedRows;
+
+    /*
+     * hash indexes of particular columns, created on first use only
+     */
+    private final Map<Integer, EqualityIndex> equalityIndexes = new HashMap<>();
+
+    /*
+     * sorted indexes of particular columns, created on first use and dropped as soon as the rows change
+     */
+    private final Map<Integer, SortedIndex> sortedIndexes = new HashMap<>();
+
+    /**
+     * Creates an empty row store.
+     *
+     * @param columnNames the column names (from the header row or a pseudo header row) in the order of the CSV columns
+     */
+    public CSVRowStore(String[] columnNames) {
+        this.numberOfColumns = columnNames.length;
+        this.columnNames = new ArrayList<>(columnNames.length);
+        this.columnIndexes = new HashMap<>();
+        this.rows = new CopyOnWriteRowList();
+        this.modifiedRows = new BitSet();
+        for (String columnName : columnNames) {
+            this.addColumnName(columnName);
+        }
+    }
+
+    private CSVRowStore(CSVRowStore source) {
+        this.numberOfColumns = source.numberOfColumns;
+        this.columnNames = new ArrayList<>(source.columnNames);
+        this.columnIndexes = new HashMap<>(source.columnIndexes);
+        this.rows = source.rows.copy();
+        this.modifiedRows = (BitSet) source.modifiedRows.clone();
+    }
+
+    /**
+     * Creates a copy of the store. The rows are not copied but shared by both stores, a row is copied by the store which changes it first.
+     * Hence, the copy costs one reference per 1024 rows, independently of the number of columns. Indexes are not copied, each store builds
+     * its own indexes on demand.
+     * <p>
+     * Copying hands the ownership of all rows over to the copies (see {@link CopyOnWriteRowList#copy()}), hence it is synchronized with
+     * all changes of this store.
+     *
+     * @return the copy
+     */
+    public synchronized CSVRowStore copy() {
+        return new CSVRowStore(this);
+    }
+
+    private int addColumnName(String columnName) {
+        int columnIndex = this.columnNames.size();
+        this.columnNames.add(columnName);
+        this.columnIndexes.putIfAbsent(columnName, columnIndex);
+        return columnIndex;
+    }
+
+    /**
+     * Appends the given row. The array is stored as it is, so the caller must not modify it afterwards.
+     *
+     * @param values Column values from left to right
+     */
+    public void addRow(String[] values) {
+        this.addRowObject(values);
+    }
+
+    /**
+     * Appends the given row. Records which decode their values on access are stored as they are, the values of all other records are
+     * taken over (see {@link CSVRecord#detachValues()}), so the record must not be used afterwards.
+     *
+     * @param record the values of the row
+     */
+    public void addRow(CSVRecord record) {
+        this.addRowObject(record.isDecodedOnAccess() ? record : record.detachValues());
+    }
+
+    private synchronized void addRowObject(Object row) {
+        int rowIndex = this.rows.size();
+        this.rows.add(row);
+        this.sortedIndexes.clear();
+        for (Map.Entry<Integer, EqualityIndex> index : this.equalityIndexes.entrySet()) {
+            index.getValue().add(this.getValue(rowIndex, index.getKey()), rowIndex);
+        }
+    }
+
+    public int getNumberOfRows() {
+        return this.rows.size();
+    }
+
+    /**
+     * Retrieves the number of columns defined by the header row.
+     *
+     * @return
+     */
+    public int getNumberOfColumns() {
+        return this.numberOfColumns;
+    }
+
+    /**
+     * Retrieves the ordinal of the column with the given name.
+     *
+     * @param columnName
+     * @return the column ordinal or -1 if there is no such column
+     */
+    public int getColumnIndex(String columnName) {
+        Integer columnIndex = this.columnIndexes.get(columnName);
+        return columnIndex != null ? columnIndex : -1;
+    }
+
+    String getColumnName(int columnIndex) {
+        return this.columnNames.get(columnIndex);
+    }
+
+    /**
+     * Retrieves the value of a particular cell.
+     *
+     * @param rowIndex
+     * @param columnIndex
+     * @return the value or <code>null</code> if the row does not have a value for the given column
+     */
+    public String getValue(int rowIndex, int columnIndex) {
+        Object row = this.rows.get(rowIndex);
+        if (columnIndex < 0) {
+            return null;
+        }
+        if (row instanceof String[]) {
+            String[] values = (String[]) row;
+            return columnIndex < values.length ? values[columnIndex] : null;
+        }
+        CSVRecord record = (CSVRecord) row;
+        return columnIndex < record.size() ? record.get(columnIndex) : null;
+    }
+
+    /**
+     * Checks if a particular cell has a value, without decoding the value of rows which decode their values on access.
+     *
+     * @param rowIndex
+     * @param columnIndex
+     * @return <code>true</code> if {@link #getValue(int, int)} returns a value other than <code>null</code>
+     */
+    public boolean hasValue(int rowIndex, int columnIndex) {
+        Object row = this.rows.get(rowIndex);
+        if (columnIndex < 0) {
+            return false;
+        }
+        if (row instanceof String[]) {
+            String[] values = (String[]) row;
+            return columnIndex < values.length && values[columnIndex] != null;
+        }
+        return columnIndex < ((CSVRecord) row).size();
+    }
+
+    /**
+     * Retrieves the number of values of the given row. Rows may have more values than the header row if values were set for unknown
+     * columns.
+     *
+     * @param rowIndex
+     * @return the number of values, some of them may be <code>null</code>
+     */
+    public int getRowLength(int rowIndex) {
+        Object row = this.rows.get(rowIndex);
+        return row instanceof String[] ? ((String[]) row).length : ((CSVRecord) row).size();
+    }
+
+    /**
+     * Sets the value of a particular cell.
+     *
+     * @param rowIndex
+     * @param columnIndex
+     * @param value
+     */
+    public synchronized void setValue(int rowIndex, int columnIndex, String value) {
+        String[] row = this.decodeRow(rowIndex);
+        if (columnIndex >= row.length || this.rows.isShared(rowIndex)) {
+            // rows shared with copies of the store are changed on a copy of the row
+            row = Arrays.copyOf(row, Math.max(row.length, columnIndex + 1));
+            this.rows.set(rowIndex, row);
+        }
+
+        EqualityIndex index = this.equalityIndexes.get(columnIndex);
+        if (index != null) {
+            index.remove(row[columnIndex], rowIndex);
+            index.add(value, rowIndex);
+        }
+        this.sortedIndexes.remove(columnIndex);
+
+        row[columnIndex] = value;
+        this.modifiedRows.set(rowIndex);
+    }
+
+    /**
+     * Sets the value of a particular cell. If the given column does not exist it is added for this particular row only, all other rows do not
+     * have a value for such a column.
+     *
+     * @param rowIndex
+     * @param columnName
+     * @param value
+     */
+    public synchronized void setValue(int rowIndex, String columnName, String value) {
+        int columnIndex = this.getColumnIndex(columnName);
+        if (columnIndex < 0) {
+            columnIndex = this.addColumnName(columnName);
+        }
+        this.setValue(rowIndex, columnIndex, value);
+    }
+
+    /**
+     * Retrieves all rows having exactly the given value in the given column. The lookup is served by a hash index of the column, which is
+     * built on first use and kept up to date by all subsequent changes.
+     *
+     * @param columnIndex
+     * @param value
+     * @return new array with the matching row ordinals in ascending order
+     */
+    public int[] getRowsWithValue(int columnIndex, String value) {
+        return this.getEqualityIndex(columnIndex).getRows(value);
+    }
+
+    private EqualityIndex getEqualityIndex(int columnIndex) {
+        EqualityIndex index = this.equalityIndexes.get(columnIndex);
+        if (index == null) {
+            index = new EqualityIndex();
+            for (int rowIndex = 0; rowIndex < this.rows.size(); rowIndex++) {
+                index.add(this.getValue(rowIndex, columnIndex), rowIndex);
+            }
+            this.equalityIndexes.put(columnIndex, index);
+        }
+        return index;
+    }
+
+    /**
+     * @param columnIndex
+     * @return <code>true</code> if the hash index of the given column was built already, i.e. {@link #getRowsWithValue(int, String)} does
+     *         not need to scan all rows
+     */
+    public boolean hasEqualityIndex(int columnIndex) {
+        return this.equalityIndexes.containsKey(columnIndex);
+    }
+
+    /**
+     * @param columnIndex
+     * @return <code>true</code> if the sorted index of the given column exists, i.e. {@link #getRowsWithPrefix(int, String)} does not need
+     *         to scan all rows
+     */
+    public boolean hasSortedIndex(int columnIndex) {
+        return this.sortedIndexes.containsKey(columnIndex);
+    }
+
+    /**
+     * Retrieves all rows having a value starting with the given prefix in the given column. The lookup is served by a sorted index of the
+     * column, which is built on first use. In contrast to the hash index, the sorted index is not maintained but dropped as soon as the
+     * column changes, and built again on the next lookup.
+     *
+     * @param columnIndex
+     * @param prefix
+     * @return new array with the matching row ordinals in ascending order
+     */
+    public int[] getRowsWithPrefix(int columnIndex, String prefix) {
+        return this.sortedIndexes.computeIfAbsent(columnIndex, c -> new SortedIndex(this, c)).getRowsWithPrefix(prefix);
+    }
+
+    /**
+     * Retrieves the values of the given row in the order of the columns.
+     *
+     * @param rowIndex
+     * @return the values of the row, the array may be backed by the store and must not be modified
+     */
+    public String[] getRow(int rowIndex) {
+        Object row = this.rows.get(rowIndex);
+        return row instanceof String[] ? (String[]) row : ((CSVRecord) row).toArray();
+    }
+
+    /**
+     * Checks whether values of the rows in front of the given row were changed since the store was created or since the last call of
+     * {@link #clearModifiedRows()}.
+     *
+     * @param toRowIndex the first row index which is not checked anymore
+     * @return <code>true</code> if at least one row in [0, toRowIndex) was changed
+     */
+    public boolean hasModifiedRows(int toRowIndex) {
+        int firstModifiedRow = this.modifiedRows.nextSetBit(0);
+        return firstModifiedRow >= 0 && firstModifiedRow < toRowIndex;
+    }
+
+    /**
+     * @return <code>true</code> if at least one row decodes its values on access, i.e. the store still depends on the source of the row
+     */
+    public boolean hasRowsDecodedOnAccess() {
+        for (int rowIndex = 0; rowIndex < this.rows.size(); rowIndex++) {
+            if (this.rows.get(rowIndex) instanceof CSVRecord) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets all changed rows, e.g. after the rows were saved.
+     */
+    public synchronized void clearModifiedRows() {
+        this.modifiedRows.clear();
+    }
+
+    /**
+     * Retrieves the record the given row was read from, as long as none of the values of the row was changed. Only records which decode
+     * their values on access are kept by the store, for all other rows <code>null</code> is returned.
+     *
+     * @param rowIndex
+     * @return the unmodified record or <code>null</code> if the row was changed, added via {@link #addRow(String[])} or decoded
+     */
+    public CSVRecord getUnmodifiedRecord(int rowIndex) {
+        Object row = this.rows.get(rowIndex);
+        return row instanceof CSVRecord ? (CSVRecord) row : null;
+    }
+
+    /**
+     * Replaces all rows which decode their values on access by the arrays of their values. Afterwards, the store does not depend on the
+     * source of these rows anymore (e.g. a memory-mapped file).
+     */
+    public synchronized void decodeAllRows() {
+        for (int rowIndex = 0; rowIndex < this.rows.size(); rowIndex++) {
+            this.decodeRow(rowIndex);
+        }
+    }
+
+    private String[] decodeRow(int rowIndex) {
+        Object row = this.rows.get(rowIndex);
+        if (row instanceof String[]) {
+            return (String[]) row;
+        }
+        String[] values = ((CSVRecord) row).toArray();
+        this.rows.set(rowIndex, values);
+        return values;
+    }
+
+    /**
+     * Estimates the heap memory retained by the store: the rows, the header dictionary and all indexes. Memory outside of the heap, e.g.
+     * files mapped into memory for rows which are decoded on access, is not included. Rows shared with copies of the store are included in
+     * the estimate of each store. See {@link MemoryEstimate} for the assumptions behind the estimate.
+     *
+     * @return the estimated number of bytes
+     */
+    public long getRetainedHeapEstimate() {
+        long size = MemoryEstimate.ofObject(4 + 6 * MemoryEstimate.REFERENCE);
+
+        size += MemoryEstimate.ofArray(this.columnNames.size(), MemoryEstimate.REFERENCE);
+        for (String columnName : this.columnNames) {
+            // name, dictionary entry and column ordinal
+            size += MemoryEstimate.ofString(columnName) + MemoryEstimate.ofObject(4 + 3 * MemoryEstimate.REFERENCE) + MemoryEstimate.ofObject(4);
+        }
+
+        size += this.rows.getRetainedHeapEstimate();
+        for (int rowIndex = 0; rowIndex < this.rows.size(); rowIndex++) {
+            Object row = this.rows.get(rowIndex);
+            size += row instanceof String[] ? MemoryEstimate.ofStrings((String[]) row) : ((CSVRecord) row).getRetainedHeapEstimate();
+        }
+
+        size += MemoryEstimate.ofArray(this.modifiedRows.size() / 64, 8);
+        for (EqualityIndex index : this.equalityIndexes.values()) {
+            size += index.getRetainedHeapEstimate();
+        }
+        for (SortedIndex index : this.sortedIndexes.values()) {
+            size += index.getRetainedHeapEstimate();
+        }
+        return size;
+    }
+
+    /**
+     * Creates a list view of all rows in which each row is represented as map of column name to value. The maps are created on demand and
+     * write changes through to the store.
+     *
+     * @return list of row maps
+     */
+    public List<Map<String, String>> asMapList() {
+        return new AbstractList<Map<String, String>>() {
+
+            @Override
+            public Map<String, String> get(int index) {
+                return new RowMapView(CSVRowStore.this, index);
+            }
+
+            @Override
+            public int size() {
+                return CSVRowStore.this.getNumberOfRows();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.github.jep42.easycsvmap.store;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.github.jep42.easycsvmap.util.MemoryEstimate;
+
+/**
+ * List of rows which is split into chunks of up to {@value #CHUNK_SIZE} rows. A copy of the list shares all chunks and rows with the
+ * original, hence copying costs one reference per chunk only. A chunk is copied by the list which changes it first, afterwards the chunk
+ * belongs to this list exclusively. The rows themselves are never changed by the list, but callers which change a row in place have to
+ * check if the row is shared (see {@link #isShared(int)}) and replace it by a copy otherwise.
+ * <p>
+ * The list is not synchronized, copying changes the ownership of this list and must not overlap with changes of it.
+ */
+final class CopyOnWriteRowList {
+
+    private static final int CHUNK_BITS = 10;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /*
+     * the first chunk grows up to the chunk size, so that small CSVs do not allocate a whole chunk
+     */
+    private static final int INITIAL_CHUNK_SIZE = 16;
+
+    private Object[][] chunks;
+
+    private int size;
+
+    /*
+     * chunks and rows which are not shared with copies of the list, i.e. which may be changed in place
+     */
+    private final BitSet ownedChunks = new BitSet();
+
+    private final BitSet ownedRows = new BitSet();
+
+
+    CopyOnWriteRowList() {
+        this.chunks = new Object[1][];
+    }
+
+    private CopyOnWriteRowList(CopyOnWriteRowList source) {
+        this.chunks = source.chunks.clone();
+        this.size = source.size;
+    }
+
+    /**
+     * Creates a copy which shares all chunks and rows with this list. Afterwards, neither this list nor the copy changes a chunk or row in
+     * place anymore.
+     *
+     * @return the copy
+     */
+    CopyOnWriteRowList copy() {
+        this.ownedChunks.clear();
+        this.ownedRows.clear();
+        return new CopyOnWriteRowList(this);
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    Object get(int index) {
+        this.checkIndex(index);
+        return this.chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    void add(Object row) {
+        int chunkIndex = this.size >>> CHUNK_BITS;
+        int offset = this.size & CHUNK_MASK;
+        if (chunkIndex == this.chunks.length) {
+            this.chunks = Arrays.copyOf(this.chunks, chunkIndex * 2);
+        }
+
+        Object[] chunk = this.chunks[chunkIndex];
+        if (chunk == null) {
+            chunk = new Object[chunkIndex == 0 ? INITIAL_CHUNK_SIZE : CHUNK_SIZE];
+        } else if (offset == chunk.length) {
+            chunk = Arrays.copyOf(chunk, Math.min(chunk.length * 2, CHUNK_SIZE));
+        } else {
+            chunk = this.getWritableChunk(chunkIndex);
+        }
+        this.chunks[chunkIndex] = chunk;
+        this.ownedChunks.set(chunkIndex);
+
+        chunk[offset] = row;
+        this.ownedRows.set(this.size);
+        this.size++;
+    }
+
+    void set(int index, Object row) {
+        this.checkIndex(index);
+        this.getWritableChunk(index >>> CHUNK_BITS)[index & CHUNK_MASK] = row;
+        this.ownedRows.set(index);
+    }
+
+    /**
+     * @param index
+     * @return <code>true</code> if the row at the given index may be shared with a copy of the list, i.e. it must not be changed in place
+     */
+    boolean isShared(int index) {
+        return !this.ownedRows.get(index);
+    }
+
+    private Object[] getWritableChunk(int chunkIndex) {
+        if (!this.ownedChunks.get(chunkIndex)) {
+            this.chunks[chunkIndex] = this.chunks[chunkIndex].clone();
+            this.ownedChunks.set(chunkIndex);
+        }
+        return this.chunks[chunkIndex];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    /**
+     * Estimates the heap memory retained by the list structure, without the rows. Chunks shared with copies are included.
+     *
+     * @return the estimated number of bytes
+     */
+    long getRetainedHeapEstimate() {
+        long size = MemoryEstimate.ofObject(4 + 3 * MemoryEstimate.REFERENCE) + MemoryEstimate.ofArray(this.chunks.length, MemoryEstimate.REFERENCE);
+        for (Object[] chunk : this.chunks) {
+            if (chunk != null) {
+                size += MemoryEstimate.ofArray(chunk.length, MemoryEstimate.REFERENCE);
+            }
+        }
+        // both bit sets
+        return size + 2 * MemoryEstimate.ofArray(this.size / 64 + 1, 8);
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.github.jep42.easycsvmap.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.jep42.easycsvmap.util.MemoryEstimate;
+
+/**
+ * Hash index of a single column which maps each value to the ordinals of the rows having this value. The row ordinals of a value are kept in
+ * ascending order. As most values of an indexed column are usually unique, a single row ordinal is stored as {@link Integer} and only values
+ * occurring in several rows get an array of row ordinals.
+ */
+class EqualityIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final Map<String, Object> rowsByValue = new HashMap<>();
+
+    /**
+     * Retrieves the ordinals of all rows with the given value.
+     *
+     * @param value
+     * @return new array with the row ordinals in ascending order
+     */
+    int[] getRows(String value) {
+        Object rows = this.rowsByValue.get(value);
+        if (rows == null) {
+            return NO_ROWS;
+        }
+        if (rows instanceof Integer) {
+            return new int[] { (Integer) rows };
+        }
+        return ((RowList) rows).toArray();
+    }
+
+    /**
+     * Adds the given row for the given value.
+     *
+     * @param value
+     * @param rowIndex
+     */
+    void add(String value, int rowIndex) {
+        if (value == null) {
+            return;
+        }
+        Object rows = this.rowsByValue.get(value);
+        if (rows == null) {
+            this.rowsByValue.put(value, rowIndex);
+        } else if (rows instanceof Integer) {
+            RowList rowList = new RowList();
+            rowList.add((Integer) rows);
+            rowList.add(rowIndex);
+            this.rowsByValue.put(value, rowList);
+        } else {
+            ((RowList) rows).add(rowIndex);
+        }
+    }
+
+    /**
+     * Removes the given row from the rows of the given value.
+     *
+     * @param value
+     * @param rowIndex
+     */
+    void remove(String value, int rowIndex) {
+        if (value == null) {
+            return;
+        }
+        Object rows = this.rowsByValue.get(value);
+        if (rows instanceof Integer) {
+            if ((Integer) rows == rowIndex) {
+                this.rowsByValue.remove(value);
+            }
+        } else if (rows != null) {
+            RowList rowList = (RowList) rows;
+            rowList.remove(rowIndex);
+            if (rowList.size == 0) {
+                this.rowsByValue.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Estimates the heap memory of the index. The values are shared with the row store and not counted.
+     *
+     * @return the estimated number of bytes
+     */
+    long getRetainedHeapEstimate() {
+        // hash table with a load factor of 0.75 and an entry with hash, key, value and next entry per value
+        long size = MemoryEstimate.ofObject(6 * 4) + MemoryEstimate.ofArray(Integer.highestOneBit(this.rowsByValue.size() * 4 / 3 + 1) * 2,
+                MemoryEstimate.REFERENCE);
+        for (Object rows : this.rowsByValue.values()) {
+            size += MemoryEstimate.ofObject(4 + 3 * MemoryEstimate.REFERENCE);
+            if (rows instanceof Integer) {
+                size += MemoryEstimate.ofObject(4);
+            } else {
+                size += MemoryEstimate.ofObject(MemoryEstimate.REFERENCE + 4) + MemoryEstimate.ofArray(((RowList) rows).rows.length, 4);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Sorted set of row ordinals.
+     */
+    private static final class RowList {
+
+        private int[] rows = new int[4];
+
+        private int size;
+
+        void add(int rowIndex) {
+            if (this.size > 0 && this.rows[this.size - 1] >= rowIndex) {
+                // rows are added in ascending order while the index is built or rows are appended, changed values may require an insert
+                int insertionPoint = Arrays.binarySearch(this.rows, 0, this.size, rowIndex);
+                if (insertionPoint >= 0) {
+                    return;
+                }
+                this.insert(-insertionPoint - 1, rowIndex);
+            } else {
+                this.insert(this.size, rowIndex);
+            }
+        }
+
+        private void insert(int position, int rowIndex) {
+            if (this.size == this.rows.length) {
+                this.rows = Arrays.copyOf(this.rows, this.size * 2);
+            }
+            System.arraycopy(this.rows, position, this.rows, position + 1, this.size - position);
+            this.rows[position] = rowIndex;
+            this.size++;
+        }
+
+        void remove(int rowIndex) {
+            int position = Arrays.binarySearch(this.rows, 0, this.size, rowIndex);
+            if (position >= 0) {
+                System.arraycopy(this.rows, position + 1, this.rows, position, this.size - position - 1);
+                this.size--;
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.rows, this.size);
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.github.jep42.easycsvmap.store;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map view of a single row of a {@link CSVRowStore}. The column names are used as keys, the entries are ordered by column. Changes are
+ * written through to the store.
+ */
+class RowMapView extends AbstractMap<String, String> {
+
+    private final CSVRowStore rowStore;
+
+    private final int rowIndex;
+
+    RowMapView(CSVRowStore rowStore, int rowIndex) {
+        this.rowStore = rowStore;
+        this.rowIndex = rowIndex;
+    }
+
+    @Override
+    public String get(Object key) {
+        return key instanceof String ? this.rowStore.getValue(this.rowIndex, this.rowStore.getColumnIndex((String) key)) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.get(key) != null;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        String previousValue = this.get(key);
+        this.rowStore.setValue(this.rowIndex, key, value);
+        return previousValue;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<Map.Entry<String, String>>() {
+
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                CSVRowStore rowStore = RowMapView.this.rowStore;
+                int rowLength = rowStore.getRowLength(RowMapView.this.rowIndex);
+                int size = 0;
+                for (int columnIndex = 0; columnIndex < rowLength; columnIndex++) {
+                    if (rowStore.getValue(RowMapView.this.rowIndex, columnIndex) != null) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<String, String>> {
+
+        private int nextColumnIndex = this.findColumn(0);
+
+        @Override
+        public boolean hasNext() {
+            return this.nextColumnIndex >= 0;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int columnIndex = this.nextColumnIndex;
+            this.nextColumnIndex = this.findColumn(columnIndex + 1);
+            return new RowEntry(columnIndex);
+        }
+
+        private int findColumn(int fromColumnIndex) {
+            CSVRowStore rowStore = RowMapView.this.rowStore;
+            int rowLength = rowStore.getRowLength(RowMapView.this.rowIndex);
+            for (int columnIndex = fromColumnIndex; columnIndex < rowLength; columnIndex++) {
+                if (rowStore.getValue(RowMapView.this.rowIndex, columnIndex) != null) {
+                    return columnIndex;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private class RowEntry implements Map.Entry<String, String> {
+
+        private final int columnIndex;
+
+        RowEntry(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public String getKey() {
+            return RowMapView.this.rowStore.getColumnName(this.columnIndex);
+        }
+
+        @Override
+        public String getValue() {
+            return RowMapView.this.rowStore.getValue(RowMapView.this.rowIndex, this.columnIndex);
+        }
+
+        @Override
+        public String setValue(String value) {
+            String previousValue = this.getValue();
+            RowMapView.this.rowStore.setValue(RowMapView.this.rowIndex, this.columnIndex, value);
+            return previousValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return this.getKey().equals(e.getKey()) && this.getValue().equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.getKey().hashCode() ^ this.getValue().hashCode();
+        }
+    }
+
+}
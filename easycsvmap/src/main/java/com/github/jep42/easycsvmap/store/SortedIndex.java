@@ -0,0 +1,83 @@
+package com.github.jep42.easycsvmap.store;
+
+import java.util.Arrays;
+
+import com.github.jep42.easycsvmap.util.MemoryEstimate;
+
+/**
+ * Index of a single column which keeps the row ordinals sorted by the value of the column. Rows having values with a common prefix are
+ * adjacent in the index, so they can be found via binary search.
+ */
+class SortedIndex {
+
+    private final CSVRowStore rowStore;
+
+    private final int columnIndex;
+
+    private final int[] sortedRows;
+
+    SortedIndex(CSVRowStore rowStore, int columnIndex) {
+        this.rowStore = rowStore;
+        this.columnIndex = columnIndex;
+
+        Integer[] rows = new Integer[rowStore.getNumberOfRows()];
+        int numberOfRows = 0;
+        for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
+            if (rowStore.getValue(rowIndex, columnIndex) != null) {
+                rows[numberOfRows++] = rowIndex;
+            }
+        }
+        Arrays.sort(rows, 0, numberOfRows, (r1, r2) -> this.getValue(r1).compareTo(this.getValue(r2)));
+
+        this.sortedRows = new int[numberOfRows];
+        for (int i = 0; i < numberOfRows; i++) {
+            this.sortedRows[i] = rows[i];
+        }
+    }
+
+    long getRetainedHeapEstimate() {
+        return MemoryEstimate.ofObject(MemoryEstimate.REFERENCE * 2 + 4) + MemoryEstimate.ofArray(this.sortedRows.length, 4);
+    }
+
+    private String getValue(int rowIndex) {
+        return this.rowStore.getValue(rowIndex, this.columnIndex);
+    }
+
+    /**
+     * Retrieves all rows with a value starting with the given prefix.
+     *
+     * @param prefix
+     * @return new array with the row ordinals in ascending order
+     */
+    int[] getRowsWithPrefix(String prefix) {
+        int from = this.findFirst(prefix, 0);
+        int to = this.findFirst(prefix, 1);
+
+        int[] rows = Arrays.copyOfRange(this.sortedRows, from, to);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    /*
+     * binary search for the first position with a value which compares greater or equal than the given bound. A value starting with the
+     * prefix compares as 0, all other values as defined by String#compareTo
+     */
+    private int findFirst(String prefix, int bound) {
+        int low = 0;
+        int high = this.sortedRows.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.compareToPrefix(this.getValue(this.sortedRows[middle]), prefix) < bound) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compareToPrefix(String value, String prefix) {
+        return value.startsWith(prefix) ? 0 : value.compareTo(prefix);
+    }
+
+}
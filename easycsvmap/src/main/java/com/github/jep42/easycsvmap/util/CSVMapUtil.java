@@ -3,17 +3,44 @@ package com.github.jep42.easycsvmap.util;
 
 public final class CSVMapUtil {
 
+    private static final int MAX_INTEGER_DIGITS = 10;
+
     private CSVMapUtil() {}
 
+    /**
+     * Checks if the given string is a valid (optionally signed) decimal integer in the value range of <code>int</code>. The check does not
+     * rely on parsing the string and catching the resulting exceptions, hence it is cheap for invalid strings as well.
+     *
+     * @param intString
+     * @return <code>true</code> if {@link Integer#parseInt(String)} would accept the given string
+     */
     public static boolean isValidInteger(String intString) {
-        try {
-            Integer.parseInt(intString);
+        if (isEmpty(intString)) {
+            return false;
+        }
 
-        } catch (NumberFormatException e) {
-            // we can ignore this...its ok...really...
+        boolean negative = intString.charAt(0) == '-';
+        int firstDigit = negative || intString.charAt(0) == '+' ? 1 : 0;
+        if (firstDigit == intString.length()) {
             return false;
         }
-        return true;
+
+        long value = 0;
+        int numberOfDigits = 0;
+        for (int i = firstDigit; i < intString.length(); i++) {
+            char c = intString.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            // leading zeros do not count towards the maximum number of digits
+            if (value > 0 || c != '0') {
+                if (++numberOfDigits > MAX_INTEGER_DIGITS) {
+                    return false;
+                }
+                value = value * 10 + (c - '0');
+            }
+        }
+        return negative ? -value >= Integer.MIN_VALUE : value <= Integer.MAX_VALUE;
     }
 
     public static String removeBracesFromString(String str) {
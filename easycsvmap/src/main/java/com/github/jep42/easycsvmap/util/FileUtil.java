@@ -1,11 +1,21 @@
 package com.github.jep42.easycsvmap.util;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.io.IOUtils;
@@ -34,20 +44,57 @@ public final class FileUtil {
 
     private void initialize() throws IOException {
         try (BOMInputStream input = new BOMInputStream(Files.newInputStream(Paths.get(this.filePath)))) {
-            // Fetch BOM (optional) and actual data from the InputStream
+            // Fetch BOM (optional), the actual data is read on demand only
             this.bom = input.getBOM();
-            this.content = IOUtils.toString(input, getCharSet(bom));
         }
     }
 
+    /**
+     * Reads the whole file content (without BOM) into a String. The content is read on first access only and kept afterwards, hence this
+     * method should not be used for large files. Use {@link #openReader()} to stream the content instead.
+     *
+     * @return the file content
+     * @throws UncheckedIOException if the file cannot be read
+     */
     public String getContent() {
+        if (this.content == null) {
+            try (BOMInputStream input = this.openInputStream()) {
+                this.content = IOUtils.toString(input, getCharset(this.bom));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the file " + this.filePath, e);
+            }
+        }
         return this.content;
     }
 
+    /**
+     * Opens a new reader on the file. The reader is positioned behind the byte order mark (if any) and decodes the file content using the
+     * charset matching the BOM. The caller is responsible for closing the reader.
+     *
+     * @return new Reader instance streaming the file content
+     * @throws IOException if the file cannot be opened
+     */
+    public Reader openReader() throws IOException {
+        return new InputStreamReader(this.openInputStream(), getCharset(this.bom));
+    }
+
+    private BOMInputStream openInputStream() throws IOException {
+        return new BOMInputStream(Files.newInputStream(Paths.get(this.filePath)));
+    }
+
     public ByteOrderMark getBom() {
         return this.bom;
     }
 
+    /**
+     * Returns the charset used to decode the file content, see {@link #openReader()}.
+     *
+     * @return Charset matching the BOM or the default JVM charset if the file has no BOM
+     */
+    public Charset getCharset() {
+        return getCharset(this.bom);
+    }
+
     public static String getSystemResourcePath(String resourcePath) {
         try {
             return Paths.get(ClassLoader.getSystemResource(resourcePath).toURI()).toString();
@@ -56,12 +103,77 @@ public final class FileUtil {
         }
     }
 
+    /**
+     * Returns a path next to the given file which can be used for a temporary file. The file does not exist yet, it can be created
+     * with the default permissions.
+     *
+     * @param file the file the temporary file belongs to
+     * @return path of the temporary file in the directory of the given file
+     */
+    public static Path getTempSibling(Path file) {
+        Path absoluteFile = file.toAbsolutePath();
+        Path tempFile;
+        do {
+            tempFile = absoluteFile.resolveSibling(absoluteFile.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong())
+                    + ".tmp");
+        } while (Files.exists(tempFile));
+        return tempFile;
+    }
+
+    /**
+     * Replaces the target file by the source file in a single step, i.e. readers of the target file see either the old or the new
+     * content. The target file keeps its POSIX permissions. If the file system does not support atomic moves, both files are left
+     * untouched and the caller decides how to replace the target.
+     *
+     * @param source the new content of the target file, usually a file in the same directory (see {@link #getTempSibling(Path)})
+     * @param target the file to replace, it may not exist yet
+     * @return <code>false</code> if the file system does not support atomic moves
+     * @throws IOException if the file cannot be moved
+     */
+    public static boolean tryReplaceAtomically(Path source, Path target) throws IOException {
+        if (Files.exists(target) && Files.getFileStore(target).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.setPosixFilePermissions(source, Files.getPosixFilePermissions(target));
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (AtomicMoveNotSupportedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Forces the content of the given file to the storage device (fsync).
+     *
+     * @param file
+     * @throws IOException
+     */
+    public static void sync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Forces the entries of the given directory to the storage device, e.g. after a file was moved into it. Not all platforms allow
+     * syncing a directory (e.g. Windows), the directory is not synced there.
+     *
+     * @param directory
+     */
+    public static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported by this platform
+        }
+    }
+
     /**
      * Returns a charset object which represents the given byte order mark or the default charset for this JVM if the given parameter is <code>null</code>.
      * @param bom The byte order mark to create a charset for. Can be <code>null</code>.
      * @return Charset matching the given BOM or the default JVM charset if the BOM is <code>null</code>.
      */
-    private static Charset getCharSet(ByteOrderMark bom) {
+    public static Charset getCharset(ByteOrderMark bom) {
         return Optional.ofNullable(bom).map(ByteOrderMark::getCharsetName).map(Charset::forName).orElse(Charset.defaultCharset());
     }
 
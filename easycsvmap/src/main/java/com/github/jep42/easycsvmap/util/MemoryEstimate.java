@@ -0,0 +1,90 @@
+package com.github.jep42.easycsvmap.util;
+
+/**
+ * Rough estimates of the heap memory used by objects, assuming a 64 bit JVM with compressed object pointers (heaps up to 32 GB), i.e.
+ * 12 byte object headers, 16 byte array headers, 4 byte references and 8 byte alignment. Strings use one byte per character on Java 9
+ * and later if all characters are Latin-1 (compact strings), two bytes otherwise.
+ */
+public final class MemoryEstimate {
+
+    public static final int OBJECT_HEADER = 12;
+
+    public static final int ARRAY_HEADER = 16;
+
+    public static final int REFERENCE = 4;
+
+    /*
+     * String object with hash, coder and value reference
+     */
+    private static final long STRING_OBJECT = align(OBJECT_HEADER + 4 + 4 + REFERENCE);
+
+    private static final boolean COMPACT_STRINGS = !System.getProperty("java.specification.version", "").startsWith("1.");
+
+    private MemoryEstimate() {
+        super();
+    }
+
+    /**
+     * @param size the size of an object or array in bytes
+     * @return the size rounded up to the object alignment
+     */
+    public static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * @param fieldBytes the total size of all fields of the object
+     * @return the size of the object including the object header
+     */
+    public static long ofObject(long fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    /**
+     * @param length      the length of the array
+     * @param elementSize the size of a single element in bytes, e.g. {@link #REFERENCE} for arrays of objects
+     * @return the size of the array itself without the referenced objects
+     */
+    public static long ofArray(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    /**
+     * @param value
+     * @return the size of the String including its character array or 0 if the value is <code>null</code>
+     */
+    public static long ofString(String value) {
+        if (value == null) {
+            return 0;
+        }
+        return STRING_OBJECT + ofArray(value.length(), isLatin1(value) ? 1 : 2);
+    }
+
+    /**
+     * @param values
+     * @return the size of the array including all Strings of the array or 0 if the array is <code>null</code>
+     */
+    public static long ofStrings(String[] values) {
+        if (values == null) {
+            return 0;
+        }
+        long size = ofArray(values.length, REFERENCE);
+        for (String value : values) {
+            size += ofString(value);
+        }
+        return size;
+    }
+
+    private static boolean isLatin1(String value) {
+        if (!COMPACT_STRINGS) {
+            return false;
+        }
+        for (int idx = 0; idx < value.length(); idx++) {
+            if (value.charAt(idx) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
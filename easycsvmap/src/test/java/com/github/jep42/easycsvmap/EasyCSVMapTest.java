@@ -4,6 +4,16 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.ByteOrderMark;
 import org.junit.Test;
@@ -112,6 +122,62 @@ public class EasyCSVMapTest {
         assertEquals("Col0-Header", csvMap.getValues("{0}.Col0-Header").values().iterator().next());
     }
 
+    @Test
+    public void parseCsv_rowsBeforeHeaderLine() {
+
+        // line with index=3 is the header line, the lines in front of it (including an empty line) are kept as data lines
+        EasyCSVMap csvMap = new EasyCSVMap(3);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-3-two-lines-before-header.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        assertEquals(5, csvMap.getNumberOfCSVRows());
+        assertEquals("pre0-col0", csvMap.getValues("{0}.Col0-Header").values().iterator().next());
+        assertEquals("pre1-col2", csvMap.getValues("{1}.Col2-Header").values().iterator().next());
+        assertEquals("Col1-Header", csvMap.getValues("{2}.Col1-Header").values().iterator().next());
+        assertEquals("datacol1-line1", csvMap.getValues("{4}.Col1-Header").values().iterator().next());
+    }
+
+    @Test
+    public void parseCsv_parallelParsing() {
+
+        CSVContext csvContext = new CSVContext(0);
+        csvContext.setParallelParsing(true);
+        EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        assertEquals(6, csvMap.getNumberOfCSVRows());
+        assertEquals("datacol1-line4", csvMap.getValues("{5}.Col1-Header").values().iterator().next());
+    }
+
+    @Test
+    public void parseCsv_mappedEngine() {
+
+        CSVContext csvContext = new CSVContext(0);
+        csvContext.setEngine(CSVContext.ENGINE_MAPPED);
+        EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines_quotedValues.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        EasyCSVMap expectedCsvMap = new EasyCSVMap(0);
+        expectedCsvMap.parseCsvFromFile(csvFilePath);
+        assertEquals(expectedCsvMap.getNumberOfCSVRows(), csvMap.getNumberOfCSVRows());
+        assertEquals(expectedCsvMap.getValues("{*}.Col1-Header"), csvMap.getValues("{*}.Col1-Header"));
+    }
+
+    @Test(expected = CSVMapException.class)
+    public void parseCsv_unknownEngine() {
+
+        CSVContext csvContext = new CSVContext(0);
+        csvContext.setEngine("unknown");
+        EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+
+        csvMap.parseCsvFromFile(FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"));
+    }
+
     @Test(expected = RuntimeException.class)
     public void parseCsv_invalidHeaderLineIndex() throws Exception {
 
@@ -192,6 +258,209 @@ public class EasyCSVMapTest {
         }
     }
 
+    @Test
+    public void saveToFile_mappedEngineOverwritesSource() throws Exception {
+        String tempFilePath = this.createTempFile();
+        try {
+            Files.copy(Paths.get(FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv")), Paths.get(tempFilePath),
+                    StandardCopyOption.REPLACE_EXISTING);
+            CSVContext csvContext = new CSVContext(0);
+            csvContext.setEngine(CSVContext.ENGINE_MAPPED);
+            EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+            csvMap.parseCsvFromFile(tempFilePath);
+            csvMap.setValues("{1}.Col0-Header", "4711");
+
+            // the rows which were not changed are still decoded from the mapped source file
+            csvMap.saveToFile(tempFilePath);
+            // the mapping still refers to the replaced file
+            assertEquals("datacol2-line4", csvMap.getValues("{5}.Col2-Header").values().iterator().next());
+
+            csvMap = new EasyCSVMap(0);
+            csvMap.parseCsvFromFile(tempFilePath);
+            assertEquals(6, csvMap.getNumberOfCSVRows());
+            assertEquals("4711", csvMap.getValues("{1}.Col0-Header").values().iterator().next());
+            assertEquals("datacol2-line4", csvMap.getValues("{5}.Col2-Header").values().iterator().next());
+        } finally {
+            this.deleteTempFile(tempFilePath);
+        }
+    }
+
+    private String saveIncrementally(String engine, String content, String... changedRowValues) throws Exception {
+        String sourceFilePath = this.createTempFile();
+        String targetFilePath = this.createTempFile();
+        try {
+            Files.write(Paths.get(sourceFilePath), content.getBytes(StandardCharsets.UTF_8));
+            CSVContext csvContext = new CSVContext(0);
+            csvContext.setEngine(engine);
+            csvContext.setIncrementalSave(true);
+            EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+            csvMap.parseCsvFromFile(sourceFilePath);
+            for (String rowValue : changedRowValues) {
+                csvMap.setValues(rowValue.substring(0, rowValue.indexOf('=')), rowValue.substring(rowValue.indexOf('=') + 1));
+            }
+            csvMap.addRow("4", "e");
+
+            csvMap.saveToFile(targetFilePath);
+
+            return new String(Files.readAllBytes(Paths.get(targetFilePath)), StandardCharsets.UTF_8);
+        } finally {
+            this.deleteTempFile(sourceFilePath);
+            this.deleteTempFile(targetFilePath);
+        }
+    }
+
+    @Test
+    public void saveToFile_incrementalCopiesUnchangedRows() throws Exception {
+        String content = "id;name\r\n1;a\r\n\r\n2;\"b;c\"\r\n3;d";
+
+        // unchanged rows keep their format, the empty line is dropped and the last row gets a line break
+        assertEquals("id;name\r\n1;a\r\n2;\"b;c\"\r\n3;d\n\"4\";\"e\"\n", this.saveIncrementally(CSVContext.ENGINE_MAPPED, content));
+        assertEquals("id;name\r\n\"1\";\"x\"\n2;\"b;c\"\r\n3;d\n\"4\";\"e\"\n",
+                this.saveIncrementally(CSVContext.ENGINE_MAPPED, content, "{1}.name=x"));
+    }
+
+    @Test
+    public void copy_isIndependentAndKeepsParsedFile() throws Exception {
+        String sourceFilePath = this.createTempFile();
+        String targetFilePath = this.createTempFile();
+        try {
+            Files.write(Paths.get(sourceFilePath), "id;name\r\n1;a\r\n2;b\r\n".getBytes(StandardCharsets.UTF_8));
+            CSVContext csvContext = new CSVContext(0);
+            csvContext.setEngine(CSVContext.ENGINE_MAPPED);
+            csvContext.setIncrementalSave(true);
+            EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+            csvMap.parseCsvFromFile(sourceFilePath);
+
+            EasyCSVMap copy = csvMap.copy();
+            copy.setValues("{1}.name", "x");
+            csvMap.setValues("{2}.name", "y");
+            copy.saveToFile(targetFilePath);
+
+            assertEquals("a", csvMap.getValues("{1}.name").get(1));
+            assertEquals("b", copy.getValues("{2}.name").get(2));
+            // the unchanged rows of the copy are still copied from the parsed file
+            assertEquals("id;name\r\n\"1\";\"x\"\n2;b\r\n", new String(Files.readAllBytes(Paths.get(targetFilePath)), StandardCharsets.UTF_8));
+        } finally {
+            this.deleteTempFile(sourceFilePath);
+            this.deleteTempFile(targetFilePath);
+        }
+    }
+
+    @Test
+    public void saveToFile_incrementalToSourceFile() throws Exception {
+        String csvFilePath = this.createTempFile();
+        try {
+            Files.write(Paths.get(csvFilePath), "id;name\r\n1;a\r\n2;\"b;c\"\r\n3;d".getBytes(StandardCharsets.UTF_8));
+            CSVContext csvContext = new CSVContext(0);
+            csvContext.setEngine(CSVContext.ENGINE_MAPPED);
+            csvContext.setIncrementalSave(true);
+            EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+            csvMap.parseCsvFromFile(csvFilePath);
+
+            csvMap.setValues("{2}.name", "x");
+            csvMap.saveToFile(csvFilePath);
+            assertEquals("id;name\r\n1;a\r\n\"2\";\"x\"\n3;d\n", new String(Files.readAllBytes(Paths.get(csvFilePath)), StandardCharsets.UTF_8));
+
+            // the positions of the unchanged rows refer to the replaced file, all rows are written
+            csvMap.setValues("{1}.name", "y");
+            csvMap.saveToFile(csvFilePath);
+            assertEquals("\"id\";\"name\"\n\"1\";\"y\"\n\"2\";\"x\"\n\"3\";\"d\"\n",
+                    new String(Files.readAllBytes(Paths.get(csvFilePath)), StandardCharsets.UTF_8));
+        } finally {
+            this.deleteTempFile(csvFilePath);
+        }
+    }
+
+    @Test
+    public void saveToFile_incrementalAfterSavingSourceFile() throws Exception {
+        String sourceFilePath = this.createTempFile();
+        String targetFilePath = this.createTempFile();
+        try {
+            Files.write(Paths.get(sourceFilePath), "id;name\n1;a\n2;b\n3;c\n".getBytes(StandardCharsets.UTF_8));
+            CSVContext csvContext = new CSVContext(0);
+            csvContext.setEngine(CSVContext.ENGINE_MAPPED);
+            csvContext.setIncrementalSave(true);
+            EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+            csvMap.parseCsvFromFile(sourceFilePath);
+
+            csvMap.setValues("{1}.name", "x");
+            csvMap.saveToFile(sourceFilePath);
+            csvMap.setValues("{3}.name", "y");
+            csvMap.saveToFile(targetFilePath);
+
+            // the byte ranges of the unchanged rows refer to the replaced source file, so all rows are written
+            assertEquals("\"id\";\"name\"\n\"1\";\"x\"\n\"2\";\"b\"\n\"3\";\"y\"\n",
+                    new String(Files.readAllBytes(Paths.get(targetFilePath)), StandardCharsets.UTF_8));
+        } finally {
+            this.deleteTempFile(sourceFilePath);
+            this.deleteTempFile(targetFilePath);
+        }
+    }
+
+    @Test
+    public void saveToFile_incrementalWritesAllRowsWithoutSourcePositions() throws Exception {
+        String content = "id;name\n1;a\n2;b\n";
+
+        // the opencsv engine does not know the positions of the rows in the file
+        assertEquals("\"id\";\"name\"\n\"1\";\"x\"\n\"2\";\"b\"\n\"4\";\"e\"\n",
+                this.saveIncrementally(CSVContext.ENGINE_OPENCSV, content, "{1}.name=x"));
+    }
+
+    @Test
+    public void saveToFile_incrementalAppendsAddedRows() throws Exception {
+        String csvFilePath = this.createTempFile();
+        try {
+            Files.write(Paths.get(csvFilePath), "id;name\n1;a".getBytes(StandardCharsets.UTF_8));
+            CSVContext csvContext = new CSVContext(0);
+            csvContext.setIncrementalSave(true);
+            EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+            csvMap.parseCsvFromFile(csvFilePath);
+
+            csvMap.addRow("2", "b");
+            csvMap.saveToFile(csvFilePath);
+            assertEquals("id;name\n1;a\n\"2\";\"b\"\n", new String(Files.readAllBytes(Paths.get(csvFilePath)), StandardCharsets.UTF_8));
+
+            csvMap.addRow("3", "c");
+            csvMap.setValues("{3}.name", "x");
+            csvMap.saveToFile(csvFilePath);
+            assertEquals("id;name\n1;a\n\"2\";\"b\"\n\"3\";\"x\"\n",
+                    new String(Files.readAllBytes(Paths.get(csvFilePath)), StandardCharsets.UTF_8));
+
+            // a saved row was changed, the whole file is written again
+            csvMap.setValues("{1}.name", "y");
+            csvMap.saveToFile(csvFilePath);
+            assertEquals("\"id\";\"name\"\n\"1\";\"y\"\n\"2\";\"b\"\n\"3\";\"x\"\n",
+                    new String(Files.readAllBytes(Paths.get(csvFilePath)), StandardCharsets.UTF_8));
+        } finally {
+            this.deleteTempFile(csvFilePath);
+        }
+    }
+
+    @Test
+    public void saveToFile_replacesTargetWithoutLeavingTempFiles() throws Exception {
+        Path directory = Files.createTempDirectory("junit");
+        Path targetPath = directory.resolve("target.csv");
+        try {
+            Files.write(targetPath, "old content".getBytes(StandardCharsets.UTF_8));
+            CSVContext csvContext = new CSVContext(0);
+            csvContext.setSyncOnSave(true);
+            EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+            csvMap.parseCsvFromFile(FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"));
+
+            csvMap.saveToFile(targetPath.toString());
+
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(Collections.singletonList(targetPath), files.collect(Collectors.toList()));
+            }
+            csvMap = new EasyCSVMap(0);
+            csvMap.parseCsvFromFile(targetPath.toString());
+            assertEquals(6, csvMap.getNumberOfCSVRows());
+        } finally {
+            Files.deleteIfExists(targetPath);
+            Files.delete(directory);
+        }
+    }
+
     @Test
     public void saveToFile_nonStandardEndLine() throws Exception {
         String specialLineEnd = "§§";
@@ -343,6 +612,24 @@ public class EasyCSVMapTest {
         csvMap.addRow(values);
     }
 
+    @Test
+    public void getRowIterator() {
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        Iterator<Map<String, String>> it = csvMap.getRowIterator();
+        assertEquals("Col1-Header", it.next().get("Col1-Header"));
+
+        Map<String, String> row = it.next();
+        assertEquals(3, row.size());
+        assertEquals("datacol1-line0", row.get("Col1-Header"));
+
+        // rows are backed by the CSV map
+        row.put("Col1-Header", "4711");
+        assertEquals("4711", csvMap.getValues("{1}.Col1-Header").values().iterator().next());
+    }
+
     @Test
     public void parseCsv_utf8WithBom() {
         EasyCSVMap csvMap = new EasyCSVMap(0);
@@ -1,6 +1,9 @@
 package com.github.jep42.easycsvmap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Map;
 
@@ -120,6 +123,36 @@ public class EasyCSVMapWithLineIndexSelectorTest {
         assertEquals("datacol0-line4", values.get(5));
     }
 
+    @Test
+    public void getValue_indexRangeViaColName() {
+        // line with index=0 is the header line
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        // overlapping ranges and duplicate indexes select each row once, ranges are cut at the last row
+        Map<Integer, String> values = csvMap.getValues("{4-42,1,2-3,3,-1}.Col0-Header");
+        assertEquals(5, values.size());
+
+        assertEquals("datacol0-line0", values.get(1));
+        assertEquals("datacol0-line1", values.get(2));
+        assertEquals("datacol0-line2", values.get(3));
+        assertEquals("datacol0-line3", values.get(4));
+        assertEquals("datacol0-line4", values.get(5));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void getValue_invalidIndexRange() {
+        // line with index=0 is the header line
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        csvMap.getValues("{3-1}.Col0-Header");
+    }
+
     @Test(expected = RuntimeException.class)
     public void getValue_missingLineSpec() {
         // line with index=0 is the header line
@@ -235,6 +268,51 @@ public class EasyCSVMapWithLineIndexSelectorTest {
         assertEquals("0815", csvMap.getValues("{4}.3").values().iterator().next());
     }
 
+    @Test
+    public void setValue_viaNotExistingColIndex() {
+        EasyCSVMap csvMap = new EasyCSVMap();
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/no-header-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        csvMap.setValues("{1,3}.5", "4711");
+
+        Map<Integer, String> values = csvMap.getValues("{1,3}.5");
+        assertEquals(2, values.size());
+        assertEquals("4711", values.get(1));
+        assertEquals("4711", values.get(3));
+        assertEquals(3, csvMap.getNumberOfCSVColumns());
+    }
+
+    @Test
+    public void getFirstValues() {
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        Map<Integer, String> values = csvMap.getFirstValues("{4,2-3,5}.Col1-Header", 2);
+        assertEquals(2, values.size());
+        assertEquals("datacol1-line1", values.get(2));
+        assertEquals("datacol1-line2", values.get(3));
+        assertEquals("datacol1-line3", csvMap.getFirstValue("{4-5}.Col1-Header"));
+        assertNull(csvMap.getFirstValue("{6}.Col1-Header"));
+    }
+
+    @Test
+    public void countAndExists() {
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        assertEquals(6, csvMap.count("{*}.Col1-Header"));
+        assertEquals(5, csvMap.count("{0,2-4,5-100}.Col1-Header"));
+        assertEquals(0, csvMap.count("{6-100}.Col1-Header"));
+        assertTrue(csvMap.exists("{5}.Col1-Header"));
+        assertFalse(csvMap.exists("{6}.Col1-Header"));
+    }
+
     @Test(expected = RuntimeException.class)
     public void setValue_forHeaderLine() {
         EasyCSVMap csvMap = new EasyCSVMap(0);
@@ -2,10 +2,13 @@ package com.github.jep42.easycsvmap;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
 
+import com.github.jep42.easycsvmap.core.CSVMapException;
 import com.github.jep42.easycsvmap.core.InvalidSelectorValueException;
 import com.github.jep42.easycsvmap.util.FileUtil;
 
@@ -176,6 +179,70 @@ public class EasyCSVMapwithRegExpLineSelectorTest {
         assertEquals("42", values.get(4));
     }
 
+    @Test
+    public void getValue_literalRegExp() {
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        Map<Integer, String> values = csvMap.getValues("[Col0-Header=^datacol0-line3$].Col1-Header");
+        assertEquals(1, values.size());
+        assertEquals("datacol1-line3", values.get(4));
+
+        // changed values have to be considered by subsequent lookups
+        csvMap.setValues("[Col0-Header=datacol0-line3].Col0-Header", "datacol0-line1");
+        values = csvMap.getValues("[Col0-Header=datacol0-line1].Col1-Header");
+        assertEquals(2, values.size());
+        assertEquals("datacol1-line1", values.get(2));
+        assertEquals("datacol1-line3", values.get(4));
+        assertEquals(0, csvMap.getValues("[Col0-Header=datacol0-line3].Col1-Header").size());
+
+        csvMap.addRow("datacol0-line3", "datacol1-line5", "datacol2-line5");
+        assertEquals("datacol1-line5", csvMap.getValues("[Col0-Header=datacol0-line3].Col1-Header").get(6));
+    }
+
+    @Test
+    public void getValues_batchOfSelectors() {
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        List<Map<Integer, String>> values = csvMap.getValues(Arrays.asList("[Col0-Header=^datacol0-line[13]$].Col1-Header",
+                "{5}.Col2-Header", "[Col0-Header=^datacol0-line[13]$].Col2-Header", "[Col0-Header=^nomatch$].Col1-Header"));
+
+        assertEquals(4, values.size());
+        assertEquals(2, values.get(0).size());
+        assertEquals("datacol1-line1", values.get(0).get(2));
+        assertEquals("datacol1-line3", values.get(0).get(4));
+        assertEquals("datacol2-line4", values.get(1).get(5));
+        assertEquals("datacol2-line1", values.get(2).get(2));
+        assertEquals("datacol2-line3", values.get(2).get(4));
+        assertEquals(0, values.get(3).size());
+    }
+
+    @Test
+    public void setValues_batchOfSelectors() {
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
+
+        csvMap.parseCsvFromFile(csvFilePath);
+
+        // the second selector has to see the value set by the first one
+        csvMap.setValues(Arrays.asList("{1}.Col0-Header", "[Col0-Header=^changed$].Col1-Header"), Arrays.asList("changed", "changed too"));
+
+        assertEquals("changed too", csvMap.getValues("{1}.Col1-Header").get(1));
+    }
+
+    @Test(expected = CSVMapException.class)
+    public void setValues_batchWithMissingValue() {
+        EasyCSVMap csvMap = new EasyCSVMap(0);
+        csvMap.parseCsvFromFile(FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"));
+
+        csvMap.setValues(Arrays.asList("{1}.Col0-Header", "{2}.Col0-Header"), Arrays.asList("value"));
+    }
+
     @Test(expected = RuntimeException.class)
     public void setValue_forHeaderLine() {
         EasyCSVMap csvMap = new EasyCSVMap(0);
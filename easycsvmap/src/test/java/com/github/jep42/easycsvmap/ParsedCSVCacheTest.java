@@ -0,0 +1,122 @@
+package com.github.jep42.easycsvmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.jep42.easycsvmap.core.CSVContext;
+
+public class ParsedCSVCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private long maxBytes;
+
+    @Before
+    public void clearCache() {
+        this.maxBytes = ParsedCSVCache.getMaxBytes();
+        ParsedCSVCache.setMaxBytes(64 * 1024 * 1024);
+        ParsedCSVCache.clearCache();
+    }
+
+    @After
+    public void restoreMaxBytes() {
+        ParsedCSVCache.setMaxBytes(this.maxBytes);
+        ParsedCSVCache.clearCache();
+    }
+
+    private File createCsvFile(String content) throws IOException {
+        File csvFile = this.tempFolder.newFile();
+        Files.write(csvFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return csvFile;
+    }
+
+    @Test
+    public void parseCsvFromFile_copiesCachedCsv() throws IOException {
+        File csvFile = this.createCsvFile("id;name\n1;Peter\n2;Wendy\n");
+
+        EasyCSVMap first = ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(0));
+        EasyCSVMap second = ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(0));
+        first.setValues("{1}.name", "Hook");
+        first.addRow("3", "Tinker Bell");
+
+        assertEquals(1, ParsedCSVCache.getCacheMisses());
+        assertEquals(1, ParsedCSVCache.getCacheHits());
+        assertTrue(ParsedCSVCache.getRetainedBytes() > 0);
+        assertEquals("Hook", first.getValues("{1}.name").get(1));
+        assertEquals("Peter", second.getValues("{1}.name").get(1));
+        assertEquals(3, second.getNumberOfCSVRows());
+        assertEquals("Peter", ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(0)).getValues("{1}.name").get(1));
+    }
+
+    @Test
+    public void parseCsvFromFile_parsesAgainForOtherSettingsOrChangedFile() throws IOException {
+        File csvFile = this.createCsvFile("id;name\n1;Peter\n");
+
+        ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(0));
+        EasyCSVMap withoutHeader = ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(CSVContext.NO_HEADER_INDEX));
+        Files.write(csvFile.toPath(), "id;name\n1;Wendy\n2;Hook\n".getBytes(StandardCharsets.UTF_8));
+        EasyCSVMap changed = ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(0));
+
+        assertEquals(3, ParsedCSVCache.getCacheMisses());
+        assertEquals("id", withoutHeader.getValues("{0}.0").get(0));
+        assertEquals("Wendy", changed.getValues("{1}.name").get(1));
+    }
+
+    @Test
+    public void parseCsvFromFile_evictsLeastRecentlyUsed() throws IOException {
+        File csvFile1 = this.createCsvFile("id;name\n1;Peter\n");
+        File csvFile2 = this.createCsvFile("id;name\n1;Wendy\n");
+
+        ParsedCSVCache.parseCsvFromFile(csvFile1.getPath(), new CSVContext(0));
+        long bytesOfOneFile = ParsedCSVCache.getRetainedBytes();
+        ParsedCSVCache.setMaxBytes(bytesOfOneFile);
+        ParsedCSVCache.parseCsvFromFile(csvFile2.getPath(), new CSVContext(0));
+        ParsedCSVCache.parseCsvFromFile(csvFile2.getPath(), new CSVContext(0));
+        ParsedCSVCache.parseCsvFromFile(csvFile1.getPath(), new CSVContext(0));
+
+        assertEquals(3, ParsedCSVCache.getCacheMisses());
+        assertEquals(1, ParsedCSVCache.getCacheHits());
+        assertEquals(bytesOfOneFile, ParsedCSVCache.getRetainedBytes());
+    }
+
+    @Test
+    public void parseCsvFromFile_evictsPreviousVersionsOfFile() throws IOException {
+        File csvFile = this.createCsvFile("id;name\n1;Peter\n");
+
+        ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(0));
+        Files.write(csvFile.toPath(), "id;name\n1;Wendy\n2;Hook\n".getBytes(StandardCharsets.UTF_8));
+        ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(0));
+        long retainedBytes = ParsedCSVCache.getRetainedBytes();
+
+        ParsedCSVCache.clearCache();
+        ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), new CSVContext(0));
+        assertEquals(ParsedCSVCache.getRetainedBytes(), retainedBytes);
+    }
+
+    @Test
+    public void parseCsvFromFile_doesNotCacheMappedCsv() throws IOException {
+        File csvFile = this.createCsvFile("id;name\n1;Peter\n");
+        CSVContext csvContext = new CSVContext(0);
+        csvContext.setEngine(CSVContext.ENGINE_MAPPED);
+
+        ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), csvContext);
+        EasyCSVMap csvMap = ParsedCSVCache.parseCsvFromFile(csvFile.getPath(), csvContext);
+
+        assertEquals(2, ParsedCSVCache.getCacheMisses());
+        assertEquals(0, ParsedCSVCache.getRetainedBytes());
+        assertEquals("Peter", csvMap.getValues("{1}.name").get(1));
+    }
+
+}
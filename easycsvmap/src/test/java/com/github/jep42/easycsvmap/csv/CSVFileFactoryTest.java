@@ -0,0 +1,84 @@
+package com.github.jep42.easycsvmap.csv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.ByteOrderMark;
+import org.junit.Test;
+
+import com.github.jep42.easycsvmap.EasyCSVMap;
+import com.github.jep42.easycsvmap.core.CSVContext;
+import com.github.jep42.easycsvmap.core.CSVMapException;
+import com.github.jep42.easycsvmap.csv.api.CSVEngine;
+import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
+import com.github.jep42.easycsvmap.csv.api.CSVFileWriter;
+import com.github.jep42.easycsvmap.csv.impl.OpenCSVEngine;
+import com.github.jep42.easycsvmap.util.FileUtil;
+
+public class CSVFileFactoryTest {
+
+    @Test
+    public void getEngineNames_builtInAndCustomEngines() {
+        assertTrue(CSVFileFactory.getEngineNames().contains(CSVContext.ENGINE_OPENCSV));
+        assertTrue(CSVFileFactory.getEngineNames().contains(CSVContext.ENGINE_MAPPED));
+        assertTrue(CSVFileFactory.getEngineNames().contains(RecordingEngine.NAME));
+    }
+
+    @Test(expected = CSVMapException.class)
+    public void getEngine_unknownEngine() {
+        CSVFileFactory.getEngine("unknown");
+    }
+
+    @Test
+    public void customEngineIsUsedForReadAndWrite() throws IOException {
+        RecordingEngine engine = (RecordingEngine) CSVFileFactory.getEngine(RecordingEngine.NAME);
+        int readers = engine.numberOfReaders;
+        int writers = engine.numberOfWriters;
+
+        CSVContext csvContext = new CSVContext(0);
+        csvContext.setEngine(RecordingEngine.NAME);
+        EasyCSVMap csvMap = new EasyCSVMap(csvContext);
+        csvMap.parseCsvFromFile(FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"));
+        File tempFile = File.createTempFile("junit", "");
+        try {
+            csvMap.saveToFile(tempFile.getAbsolutePath());
+        } finally {
+            tempFile.delete();
+        }
+
+        assertEquals(readers + 1, engine.numberOfReaders);
+        assertEquals(writers + 1, engine.numberOfWriters);
+    }
+
+    public static class RecordingEngine implements CSVEngine {
+
+        static final String NAME = "recording";
+
+        private final CSVEngine delegate = new OpenCSVEngine();
+
+        private int numberOfReaders;
+
+        private int numberOfWriters;
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public CSVFileReader createReader(File csvFile, CSVContext csvContext) throws IOException {
+            this.numberOfReaders++;
+            return this.delegate.createReader(csvFile, csvContext);
+        }
+
+        @Override
+        public CSVFileWriter createWriter(String targetPath, ByteOrderMark bom, CSVContext csvContext) throws IOException {
+            this.numberOfWriters++;
+            return this.delegate.createWriter(targetPath, bom, csvContext);
+        }
+    }
+
+}
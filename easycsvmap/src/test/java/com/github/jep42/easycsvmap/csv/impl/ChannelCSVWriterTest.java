@@ -0,0 +1,114 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.ByteOrderMark;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.jep42.easycsvmap.csv.api.CSVFileWriter;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+public class ChannelCSVWriterTest {
+
+    /*
+     * small buffer, so that the buffer is written many times and characters are split across buffers
+     */
+    private static final int BUFFER_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private List<String[]> createRows() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] { "id", "name", "comment" });
+        for (int row = 0; row < 50; row++) {
+            rows.add(new String[] { Integer.toString(row), "Nämé 😀 " + row, "a;\"quoted\" 'single'\nsecond line \\" });
+            rows.add(new String[] { "", null, "plain" });
+        }
+        return rows;
+    }
+
+    private byte[] write(CSVFileWriter writer, File targetFile) throws IOException {
+        try {
+            for (String[] row : this.createRows()) {
+                writer.writeNextLine(row);
+            }
+        } finally {
+            writer.close();
+        }
+        return Files.readAllBytes(targetFile.toPath());
+    }
+
+    private void assertSameOutputAsOpenCSV(char quoteCharacter) throws IOException {
+        File expectedFile = this.tempFolder.newFile();
+        File actualFile = this.tempFolder.newFile();
+
+        byte[] expected = this.write(new OpenCSVWriter(expectedFile.getPath(), null, ';', quoteCharacter, "\r\n"), expectedFile);
+        byte[] actual = this.write(new ChannelCSVWriter(actualFile.getPath(), null, ';', quoteCharacter, "\r\n", false, BUFFER_SIZE), actualFile);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void writeNextLine_sameOutputAsOpenCSV() throws IOException {
+        this.assertSameOutputAsOpenCSV('"');
+    }
+
+    @Test
+    public void writeNextLine_sameOutputAsOpenCSVWithCustomQuoteCharacter() throws IOException {
+        this.assertSameOutputAsOpenCSV('\'');
+    }
+
+    @Test
+    public void writeNextLine_sameOutputAsOpenCSVWithoutQuoteCharacter() throws IOException {
+        this.assertSameOutputAsOpenCSV(CSVWriter.NO_QUOTE_CHARACTER);
+    }
+
+    @Test
+    public void writeNextLine_noQuoteCharacter() throws IOException {
+        File targetFile = this.tempFolder.newFile();
+
+        CSVFileWriter writer = new ChannelCSVWriter(targetFile.getPath(), null, ';', CSVWriter.NO_QUOTE_CHARACTER, "\n");
+        writer.writeNextLine(new String[] { "a", null, "b c" });
+        writer.close();
+
+        assertArrayEquals("a;;b c\n".getBytes(StandardCharsets.US_ASCII), Files.readAllBytes(targetFile.toPath()));
+    }
+
+    @Test
+    public void writeNextLine_encodesInCharsetOfBom() throws IOException {
+        File targetFile = this.tempFolder.newFile();
+
+        byte[] bytes = this.write(new ChannelCSVWriter(targetFile.getPath(), ByteOrderMark.UTF_8, ';', '"', "\n", false, BUFFER_SIZE), targetFile);
+
+        byte[] bom = ByteOrderMark.UTF_8.getBytes();
+        assertArrayEquals(bom, Arrays.copyOf(bytes, bom.length));
+        String content = new String(bytes, bom.length, bytes.length - bom.length, StandardCharsets.UTF_8);
+        assertTrue(content.startsWith("\"id\";\"name\";\"comment\"\n\"0\";\"Nämé 😀 0\";"));
+    }
+
+    @Test
+    public void close_truncatesExistingFile() throws IOException {
+        File targetFile = this.tempFolder.newFile();
+        Files.write(targetFile.toPath(), new byte[1000]);
+
+        CSVFileWriter writer = new ChannelCSVWriter(targetFile.getPath(), null, ';', '"', "\n");
+        writer.writeNextLine(new String[] { "a" });
+        writer.close();
+
+        assertArrayEquals("\"a\"\n".getBytes(StandardCharsets.US_ASCII), Files.readAllBytes(targetFile.toPath()));
+    }
+
+}
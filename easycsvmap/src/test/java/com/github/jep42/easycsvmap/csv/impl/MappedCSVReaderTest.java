@@ -0,0 +1,134 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.ByteOrderMark;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
+import com.github.jep42.easycsvmap.csv.api.CSVRecord;
+
+public class MappedCSVReaderTest {
+
+    /*
+     * small segments, so that records cross segment borders
+     */
+    private static final int SEGMENT_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File createCsvFile(byte[] bom, String content) throws IOException {
+        File csvFile = this.tempFolder.newFile();
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[bom.length + data.length];
+        System.arraycopy(bom, 0, bytes, 0, bom.length);
+        System.arraycopy(data, 0, bytes, bom.length, data.length);
+        Files.write(csvFile.toPath(), bytes);
+        return csvFile;
+    }
+
+    private List<String[]> readAll(CSVFileReader reader) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try {
+            String[] row;
+            while ((row = reader.readNextLine()) != null) {
+                rows.add(row);
+            }
+        } finally {
+            reader.close();
+        }
+        return rows;
+    }
+
+    private void assertSameRowsAsOpenCSV(File csvFile) throws IOException {
+        List<String[]> expected = this.readAll(new OpenCSVReader(csvFile, ';', '"'));
+        for (int segmentSize : new int[] { SEGMENT_SIZE, MappedCSVReader.DEFAULT_SEGMENT_SIZE }) {
+            List<String[]> actual = this.readAll(new MappedCSVReader(csvFile, ';', '"', segmentSize));
+
+            assertEquals(expected.size(), actual.size());
+            for (int row = 0; row < expected.size(); row++) {
+                assertArrayEquals(expected.get(row), actual.get(row));
+            }
+        }
+    }
+
+    @Test
+    public void readNextLine_sameRowsAsOpenCSV() throws IOException {
+        StringBuilder content = new StringBuilder("id;name;comment\r\n");
+        for (int row = 0; row < 50; row++) {
+            content.append(row).append(";\"Nämé ").append(row).append("\";");
+            switch (row % 5) {
+            case 0:
+                content.append("\"multi\r\nline; \"\"quoted\"\"\nvalue\"");
+                break;
+            case 1:
+                content.append("plain");
+                break;
+            case 2:
+                content.append("\"\"");
+                break;
+            case 3:
+                content.append("\"escaped \\\" quote and \\\\\"\r\n");
+                break;
+            default:
+                content.append("\"a;b\"\n");
+            }
+            content.append("\r\n");
+        }
+        content.append("last;row;");
+
+        this.assertSameRowsAsOpenCSV(this.createCsvFile(new byte[0], content.toString()));
+        this.assertSameRowsAsOpenCSV(this.createCsvFile(ByteOrderMark.UTF_8.getBytes(), content.toString()));
+    }
+
+    @Test
+    public void readNextLine_lineEnds() throws IOException {
+        File csvFile = this.createCsvFile(new byte[0], "a;b\rc;d\r\ne;f\n");
+
+        List<String[]> rows = this.readAll(new MappedCSVReader(csvFile, ';', '"', SEGMENT_SIZE));
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[] { "c", "d" }, rows.get(1));
+        assertArrayEquals(new String[] { "e", "f" }, rows.get(2));
+    }
+
+    @Test
+    public void readNextLine_keepsUnescapedBackslashes() throws IOException {
+        File csvFile = this.createCsvFile(new byte[0], "C:\\temp;\"D:\\data\"");
+
+        assertArrayEquals(new String[] { "C:\\temp", "D:\\data" }, new MappedCSVReader(csvFile, ';', '"').readNextLine());
+    }
+
+    @Test
+    public void readNextRecord_recordLargerThanSegment() throws IOException {
+        StringBuilder longValue = new StringBuilder();
+        for (int idx = 0; idx < 100; idx++) {
+            longValue.append("0123456789");
+        }
+        File csvFile = this.createCsvFile(new byte[0], "x;y\n" + longValue + ";\"" + longValue + "\"\nz;z\n");
+        CSVFileReader reader = new MappedCSVReader(csvFile, ';', '"', SEGMENT_SIZE);
+
+        reader.readNextRecord();
+        CSVRecord record = reader.readNextRecord();
+        reader.readNextRecord();
+        assertNull(reader.readNextRecord());
+        reader.close();
+
+        assertEquals(2, record.size());
+        assertEquals(longValue.toString(), record.get(1));
+        assertEquals(longValue.toString(), record.get(0));
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.github.jep42.easycsvmap.csv.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.ByteOrderMark;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.jep42.easycsvmap.csv.api.CSVFileReader;
+
+public class ParallelOpenCSVReaderTest {
+
+    /*
+     * small ranges, so that even the test files are split into many ranges
+     */
+    private static final long MIN_RANGE_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File createCsvFile(byte[] bom, String content) throws IOException {
+        File csvFile = this.tempFolder.newFile("test.csv");
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[bom.length + data.length];
+        System.arraycopy(bom, 0, bytes, 0, bom.length);
+        System.arraycopy(data, 0, bytes, bom.length, data.length);
+        Files.write(csvFile.toPath(), bytes);
+        return csvFile;
+    }
+
+    private String createContent(int numberOfRows) {
+        StringBuilder content = new StringBuilder("id;name;comment\r\n");
+        for (int row = 0; row < numberOfRows; row++) {
+            content.append(row).append(";\"Nämé ").append(row).append("\";");
+            switch (row % 4) {
+            case 0:
+                content.append("\"multi\r\nline; \"\"quoted\"\"\nvalue\"");
+                break;
+            case 1:
+                content.append("plain");
+                break;
+            case 2:
+                content.append("\"\"");
+                break;
+            default:
+                content.append("\"a;b\"\r\n");
+            }
+            content.append("\r\n");
+        }
+        return content.toString();
+    }
+
+    private List<String[]> readAll(CSVFileReader reader) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try {
+            String[] row;
+            while ((row = reader.readNextLine()) != null) {
+                rows.add(row);
+            }
+        } finally {
+            reader.close();
+        }
+        return rows;
+    }
+
+    private void assertSameRows(File csvFile) throws IOException {
+        List<String[]> expected = this.readAll(new OpenCSVReader(csvFile, ';', '"'));
+        List<String[]> actual = this.readAll(new ParallelOpenCSVReader(csvFile, ';', '"', MIN_RANGE_SIZE));
+
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertArrayEquals(expected.get(row), actual.get(row));
+        }
+    }
+
+    @Test
+    public void readNextLine_quotedLineBreaks() throws IOException {
+        this.assertSameRows(this.createCsvFile(new byte[0], this.createContent(100)));
+    }
+
+    @Test
+    public void readNextLine_withBom() throws IOException {
+        File csvFile = this.createCsvFile(ByteOrderMark.UTF_8.getBytes(), this.createContent(100));
+
+        this.assertSameRows(csvFile);
+        assertEquals(ByteOrderMark.UTF_8, new ParallelOpenCSVReader(csvFile, ';', '"', MIN_RANGE_SIZE).getBom());
+    }
+
+    @Test
+    public void readNextLine_escapedQuotes() throws IOException {
+        // escaped quote characters cannot be found by the range scan, the file is read sequentially
+        this.assertSameRows(this.createCsvFile(new byte[0], this.createContent(50) + "1;\"a \\\" b\nc\";x\n" + this.createContent(50)));
+    }
+
+    @Test
+    public void readNextLine_escapeSequencesAndLineBreaksOnRangeBounds() throws IOException {
+        // files of less than 4 * MIN_RANGE_SIZE bytes are split into ranges of MIN_RANGE_SIZE bytes, shifting the content by up to two
+        // ranges puts each escape sequence, doubled quote and CRLF pair on a range bound once
+        for (int shift = 0; shift <= 2 * MIN_RANGE_SIZE; shift++) {
+            char[] padding = new char[shift];
+            Arrays.fill(padding, 'y');
+            for (String quoteSequence : new String[] { "\\\"", "\"\"" }) {
+                String content = "a;b\r\nx;\"" + new String(padding) + quoteSequence + "zz\r\nmore\";w\r\nc;d\r\n";
+
+                File csvFile = this.createCsvFile(new byte[0], content);
+                this.assertSameRows(csvFile);
+                csvFile.delete();
+            }
+        }
+    }
+
+    @Test
+    public void resetReader() throws IOException {
+        File csvFile = this.createCsvFile(new byte[0], this.createContent(100));
+        CSVFileReader reader = new ParallelOpenCSVReader(csvFile, ';', '"', MIN_RANGE_SIZE);
+        String[] firstRow = reader.readNextLine();
+        reader.readNextLine();
+
+        reader.resetReader();
+
+        assertArrayEquals(firstRow, reader.readNextLine());
+        reader.close();
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.github.jep42.easycsvmap.selector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.jep42.easycsvmap.core.CSVMapException;
+import com.github.jep42.easycsvmap.selector.api.CSVSelector;
+import com.github.jep42.easycsvmap.selector.impl.RegExpRowSelector;
+import com.github.jep42.easycsvmap.selector.impl.RowIndexSelector;
+
+public class CSVSelectorFactoryTest {
+
+    @Before
+    public void clearCache() {
+        CSVSelectorFactory.clearCache();
+    }
+
+    @Test
+    public void getCSVSelector() {
+        assertTrue(CSVSelectorFactory.getCSVSelector("{1,2}.name") instanceof RowIndexSelector);
+        assertTrue(CSVSelectorFactory.getCSVSelector("[city=^Ka.*$].name") instanceof RegExpRowSelector);
+    }
+
+    @Test(expected = CSVMapException.class)
+    public void getCSVSelector_notSupported() {
+        CSVSelectorFactory.getCSVSelector("1.name");
+    }
+
+    @Test
+    public void getCSVSelector_cached() {
+        CSVSelector selector = CSVSelectorFactory.getCSVSelector("[city=^Ka.*$].name");
+
+        assertSame(selector, CSVSelectorFactory.getCSVSelector("[city=^Ka.*$].name"));
+        assertSame(selector, CSVSelectorFactory.getCSVSelector("[city=^Ka.*$].name"));
+
+        assertEquals(1, CSVSelectorFactory.getCacheMisses());
+        assertEquals(2, CSVSelectorFactory.getCacheHits());
+    }
+
+    @Test
+    public void getCSVSelector_leastRecentlyUsedIsEvicted() {
+        CSVSelector selector = CSVSelectorFactory.getCSVSelector("{0}.name");
+        for (int i = 1; i <= CSVSelectorFactory.SELECTOR_CACHE_SIZE; i++) {
+            CSVSelectorFactory.getCSVSelector("{" + i + "}.name");
+        }
+
+        // the very first selector was evicted and has to be parsed again
+        assertTrue(selector != CSVSelectorFactory.getCSVSelector("{0}.name"));
+        assertEquals(CSVSelectorFactory.SELECTOR_CACHE_SIZE + 2, CSVSelectorFactory.getCacheMisses());
+    }
+
+}
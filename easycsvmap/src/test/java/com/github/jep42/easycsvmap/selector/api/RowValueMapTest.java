@@ -0,0 +1,66 @@
+package com.github.jep42.easycsvmap.selector.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class RowValueMapTest {
+
+    @Test
+    public void getValue() {
+        RowValueMap values = new RowValueMap();
+        for (int rowIndex = 1; rowIndex <= 10; rowIndex++) {
+            values.add(rowIndex * 10, "value" + rowIndex);
+        }
+
+        assertEquals(10, values.size());
+        assertEquals("value1", values.get(10));
+        assertEquals("value10", values.get(100));
+        assertNull(values.get(11));
+        assertNull(values.get("10"));
+        assertTrue(values.containsKey(50));
+        assertFalse(values.containsKey(55));
+    }
+
+    @Test
+    public void iterationOrderAndEquality() {
+        RowValueMap values = new RowValueMap();
+        values.add(1, "a");
+        values.add(5, "b");
+        values.add(7, "c");
+
+        Map<Integer, String> expected = new TreeMap<>();
+        expected.put(7, "c");
+        expected.put(1, "a");
+        expected.put(5, "b");
+
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(values.values()));
+        assertEquals(Arrays.asList(1, 5, 7), new ArrayList<>(values.keySet()));
+        assertEquals(expected, values);
+        assertEquals(expected.hashCode(), values.hashCode());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void isReadOnly() {
+        RowValueMap values = new RowValueMap();
+        values.add(1, "a");
+
+        values.put(2, "b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rowsHaveToBeAddedInAscendingOrder() {
+        RowValueMap values = new RowValueMap();
+        values.add(2, "a");
+        values.add(1, "b");
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.github.jep42.easycsvmap.selector.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jep42.easycsvmap.core.InvalidSelectorFormatException;
+import com.github.jep42.easycsvmap.core.InvalidSelectorValueException;
+import com.github.jep42.easycsvmap.selector.api.CSVSelector;
+import com.github.jep42.easycsvmap.store.CSVRowStore;
+
+public class RegExpRowSelectorTest {
+
+    @Test
+    public void getLiteralValue() {
+        assertEquals("4711", RegExpRowSelector.getLiteralValue("4711"));
+        assertEquals("4711", RegExpRowSelector.getLiteralValue("^4711$"));
+        assertEquals("Peter Pan", RegExpRowSelector.getLiteralValue("^Peter Pan"));
+        assertEquals("www.foo.com", RegExpRowSelector.getLiteralValue("www\\.foo\\.com$"));
+        assertEquals("a$b", RegExpRowSelector.getLiteralValue("^a\\$b$"));
+        assertEquals("", RegExpRowSelector.getLiteralValue("^$"));
+    }
+
+    @Test
+    public void getLiteralValue_noLiteral() {
+        assertNull(RegExpRowSelector.getLiteralValue("^Ka.*$"));
+        assertNull(RegExpRowSelector.getLiteralValue("4711|0815"));
+        assertNull(RegExpRowSelector.getLiteralValue("\\d+"));
+        assertNull(RegExpRowSelector.getLiteralValue("(?i)peter"));
+        assertNull(RegExpRowSelector.getLiteralValue("a$b"));
+        assertNull(RegExpRowSelector.getLiteralValue("a^b"));
+        assertNull(RegExpRowSelector.getLiteralValue("abc\\"));
+    }
+
+    @Test
+    public void getLiteralPrefix() {
+        assertEquals("Ka", RegExpRowSelector.getLiteralPrefix("^Ka.*$"));
+        assertEquals("Ka", RegExpRowSelector.getLiteralPrefix("Ka.*"));
+        assertEquals("Karlsruh", RegExpRowSelector.getLiteralPrefix("^Karlsruhe*$"));
+        assertEquals("www.", RegExpRowSelector.getLiteralPrefix("www\\.[a-z]+\\.com"));
+        assertEquals("47", RegExpRowSelector.getLiteralPrefix("47[0-9]{2}"));
+        assertEquals("4711", RegExpRowSelector.getLiteralPrefix("^4711$"));
+    }
+
+    @Test
+    public void getLiteralPrefix_noPrefix() {
+        assertNull(RegExpRowSelector.getLiteralPrefix("^.*foo$"));
+        assertNull(RegExpRowSelector.getLiteralPrefix("K?a.*"));
+        assertNull(RegExpRowSelector.getLiteralPrefix("Ka.*|Mu.*"));
+        assertNull(RegExpRowSelector.getLiteralPrefix("(?i)ka.*"));
+        assertNull(RegExpRowSelector.getLiteralPrefix("\\d+"));
+        assertNull(RegExpRowSelector.getLiteralPrefix("[A-C].*"));
+    }
+
+    private static CSVRowStore createRowStore() {
+        CSVRowStore rowStore = new CSVRowStore(new String[] { "id", "city" });
+        for (int row = 0; row < 10; row++) {
+            rowStore.addRow(new String[] { Integer.toString(row), row % 2 == 0 ? "Karlsruhe" : "Mannheim" });
+        }
+        return rowStore;
+    }
+
+    private static CSVSelector parse(String selectorString) throws InvalidSelectorFormatException {
+        CSVSelector selector = new RegExpRowSelector(selectorString);
+        selector.parse();
+        return selector;
+    }
+
+    @Test
+    public void getFirstValues_stopsAfterMaxRows() throws InvalidSelectorFormatException {
+        CSVRowStore rowStore = createRowStore();
+
+        for (String selectorString : new String[] { "[city=Mannheim].id", "[city=^Mann.*$].id", "[city=.*heim].id" }) {
+            Map<Integer, String> values = parse(selectorString).getFirstValues(rowStore, 2);
+
+            assertEquals(selectorString, Arrays.asList(1, 3), Arrays.asList(values.keySet().toArray()));
+            assertEquals(selectorString, "3", values.get(3));
+        }
+    }
+
+    @Test
+    public void countAndExists() throws InvalidSelectorFormatException {
+        CSVRowStore rowStore = createRowStore();
+
+        for (String selectorString : new String[] { "[city=Mannheim].id", "[city=^Mann.*$].id", "[city=.*heim].id" }) {
+            assertEquals(selectorString, 5, parse(selectorString).count(rowStore));
+            assertTrue(selectorString, parse(selectorString).exists(rowStore));
+        }
+        assertEquals(0, parse("[city=Berlin].id").count(rowStore));
+        assertFalse(parse("[city=^Ber.*$].id").exists(rowStore));
+    }
+
+    @Test
+    public void unknownColumnInRowSpec() throws InvalidSelectorFormatException {
+        CSVRowStore rowStore = createRowStore();
+
+        for (String selectorString : new String[] { "[town=Mannheim].id", "[town=^Mann.*$].id", "[town=.*heim].id" }) {
+            CSVSelector selector = parse(selectorString);
+            this.assertInvalidSelectorValue(selectorString, () -> selector.getValues(rowStore));
+            this.assertInvalidSelectorValue(selectorString, () -> selector.getFirstValues(rowStore, 1));
+            this.assertInvalidSelectorValue(selectorString, () -> selector.count(rowStore));
+            this.assertInvalidSelectorValue(selectorString, () -> selector.exists(rowStore));
+        }
+    }
+
+    private void assertInvalidSelectorValue(String selectorString, Runnable evaluation) {
+        try {
+            evaluation.run();
+            fail("Unknown column of " + selectorString + " was not detected");
+        } catch (InvalidSelectorValueException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shortRow() throws InvalidSelectorFormatException {
+        CSVRowStore rowStore = new CSVRowStore(new String[] { "id", "city", "zip" });
+        rowStore.addRow(new String[] { "0", "Karlsruhe", "76131" });
+        rowStore.addRow(new String[] { "1", "Mannheim" });
+        rowStore.addRow(new String[] { "2", "Mannheim", "68159" });
+
+        // count and exists check the selected rows like getValues does
+        for (String selectorString : new String[] { "[city=Mannheim].zip", "[city=^Mann.*$].zip", "[city=.*heim].zip" }) {
+            CSVSelector selector = parse(selectorString);
+            this.assertInvalidSelectorValue(selectorString, () -> selector.getValues(rowStore));
+            this.assertInvalidSelectorValue(selectorString, () -> selector.count(rowStore));
+            this.assertInvalidSelectorValue(selectorString, () -> selector.exists(rowStore));
+        }
+        assertEquals(1, parse("[city=Karlsruhe].zip").count(rowStore));
+        assertTrue(parse("[city=Karlsruhe].zip").exists(rowStore));
+        assertEquals(2, parse("[city=Mannheim].id").count(rowStore));
+    }
+
+    @Test(expected = InvalidSelectorValueException.class)
+    public void count_unknownColumn() throws InvalidSelectorFormatException {
+        parse("[city=Mannheim].unknown").count(createRowStore());
+    }
+
+    @Test
+    public void getFirstValues_doesNotBuildIndexes() throws InvalidSelectorFormatException {
+        CSVRowStore rowStore = createRowStore();
+
+        parse("[city=Mannheim].id").getFirstValues(rowStore, 1);
+        parse("[city=^Mann.*$].id").getFirstValues(rowStore, 1);
+        assertFalse(rowStore.hasEqualityIndex(1));
+        assertFalse(rowStore.hasSortedIndex(1));
+
+        // existing indexes are used for limited evaluation as well
+        parse("[city=Mannheim].id").getValues(rowStore);
+        assertTrue(rowStore.hasEqualityIndex(1));
+        assertEquals("1", parse("[city=Mannheim].id").getFirstValues(rowStore, 1).get(1));
+        assertEquals(1, parse("[city=Mannheim].id").getFirstValues(rowStore, 1).size());
+    }
+
+}
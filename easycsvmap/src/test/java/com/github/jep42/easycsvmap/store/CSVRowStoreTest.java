@@ -0,0 +1,270 @@
+package com.github.jep42.easycsvmap.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.github.jep42.easycsvmap.csv.api.CSVRecord;
+
+public class CSVRowStoreTest {
+
+    private CSVRowStore createRowStore() {
+        CSVRowStore rowStore = new CSVRowStore(new String[] { "id", "name", "city" });
+        rowStore.addRow(new String[] { "id", "name", "city" });
+        rowStore.addRow(new String[] { "1", "Peter", "Neverland" });
+        rowStore.addRow(new String[] { "2", "Wendy", "London" });
+        return rowStore;
+    }
+
+    @Test
+    public void getValue() {
+        CSVRowStore rowStore = this.createRowStore();
+
+        assertEquals(3, rowStore.getNumberOfRows());
+        assertEquals(3, rowStore.getNumberOfColumns());
+        assertEquals("Wendy", rowStore.getValue(2, rowStore.getColumnIndex("name")));
+        assertEquals(-1, rowStore.getColumnIndex("email"));
+        assertNull(rowStore.getValue(2, -1));
+    }
+
+    @Test
+    public void asMapList_keepsColumnOrder() {
+        List<Map<String, String>> rows = this.createRowStore().asMapList();
+
+        assertEquals(3, rows.size());
+        Iterator<Map.Entry<String, String>> it = rows.get(1).entrySet().iterator();
+        assertEquals("id", it.next().getKey());
+        assertEquals("name", it.next().getKey());
+        Map.Entry<String, String> entry = it.next();
+        assertEquals("city", entry.getKey());
+        assertEquals("Neverland", entry.getValue());
+    }
+
+    @Test
+    public void asMapList_writesThrough() {
+        CSVRowStore rowStore = this.createRowStore();
+        Map<String, String> row = rowStore.asMapList().get(2);
+
+        assertEquals("London", row.put("city", "Paris"));
+        assertEquals("Paris", rowStore.getValue(2, 2));
+
+        row.entrySet().iterator().next().setValue("42");
+        assertEquals("42", rowStore.getValue(2, 0));
+    }
+
+    @Test
+    public void setValue_unknownColumnIsAddedForSingleRow() {
+        CSVRowStore rowStore = this.createRowStore();
+
+        rowStore.setValue(1, "email", "peter@pan.com");
+
+        assertEquals(3, rowStore.getNumberOfColumns());
+        assertEquals("peter@pan.com", rowStore.getValue(1, rowStore.getColumnIndex("email")));
+        assertNull(rowStore.getValue(2, rowStore.getColumnIndex("email")));
+        assertEquals(4, rowStore.asMapList().get(1).size());
+        assertEquals(3, rowStore.asMapList().get(2).size());
+    }
+
+    @Test
+    public void getRetainedHeapEstimate() {
+        CSVRowStore rowStore = this.createRowStore();
+        long estimate = rowStore.getRetainedHeapEstimate();
+
+        rowStore.getRowsWithValue(2, "London");
+        long estimateWithIndex = rowStore.getRetainedHeapEstimate();
+        rowStore.addRow(new String[] { "3", "Tinker Bell", "Neverland" });
+
+        assertTrue(estimate > 0);
+        assertTrue(estimateWithIndex > estimate);
+        // array of 3 references and 3 strings
+        assertTrue(rowStore.getRetainedHeapEstimate() - estimateWithIndex >= 3 * 4 + 3 * 24);
+    }
+
+    @Test
+    public void copy_sharesRowsUntilChanged() {
+        CSVRowStore rowStore = new CSVRowStore(new String[] { "id", "name" });
+        // more rows than fit into a single chunk
+        for (int row = 0; row < 3000; row++) {
+            rowStore.addRow(new String[] { Integer.toString(row), "name" + row });
+        }
+        CSVRowStore copy = rowStore.copy();
+
+        copy.setValue(1, 1, "changed in copy");
+        rowStore.setValue(2500, 1, "changed in original");
+        copy.setValue(2500, "email", "new column in copy");
+        copy.addRow(new String[] { "3000", "added to copy" });
+
+        assertEquals("name1", rowStore.getValue(1, 1));
+        assertEquals("changed in copy", copy.getValue(1, 1));
+        assertEquals("changed in original", rowStore.getValue(2500, 1));
+        assertEquals("name2500", copy.getValue(2500, 1));
+        assertEquals(-1, rowStore.getColumnIndex("email"));
+        assertEquals("new column in copy", copy.getValue(2500, copy.getColumnIndex("email")));
+        assertEquals(3000, rowStore.getNumberOfRows());
+        assertEquals(3001, copy.getNumberOfRows());
+        assertArrayEquals(new int[] { 2999 }, rowStore.getRowsWithValue(1, "name2999"));
+        assertFalse(rowStore.hasModifiedRows(2500));
+        assertTrue(copy.hasModifiedRows(2));
+
+        // a copy of a copy is independent of both
+        CSVRowStore copyOfCopy = copy.copy();
+        copyOfCopy.setValue(1, 1, "changed in copy of copy");
+        assertEquals("changed in copy", copy.getValue(1, 1));
+    }
+
+    @Test
+    public void copy_whileOtherThreadChangesRows() throws InterruptedException {
+        CSVRowStore rowStore = new CSVRowStore(new String[] { "id", "name" });
+        for (int row = 0; row < 3000; row++) {
+            rowStore.addRow(new String[] { Integer.toString(row), "name" + row });
+        }
+        AtomicBoolean copying = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int change = 0; copying.get(); change++) {
+                rowStore.setValue(change % 3000, 1, "change" + change);
+            }
+        });
+        writer.start();
+
+        List<CSVRowStore> copies = new ArrayList<>();
+        List<String[]> copiedValues = new ArrayList<>();
+        try {
+            for (int copy = 0; copy < 200; copy++) {
+                CSVRowStore copiedRowStore = rowStore.copy();
+                String[] values = new String[3000];
+                for (int row = 0; row < 3000; row++) {
+                    values[row] = copiedRowStore.getValue(row, 1);
+                }
+                copies.add(copiedRowStore);
+                copiedValues.add(values);
+            }
+        } finally {
+            copying.set(false);
+            writer.join();
+        }
+
+        // changes of the original after copying are never visible in a copy
+        for (int copy = 0; copy < copies.size(); copy++) {
+            for (int row = 0; row < 3000; row++) {
+                assertEquals(copiedValues.get(copy)[row], copies.get(copy).getValue(row, 1));
+            }
+        }
+    }
+
+    @Test
+    public void hasModifiedRows() {
+        CSVRowStore rowStore = this.createRowStore();
+        assertFalse(rowStore.hasModifiedRows(rowStore.getNumberOfRows()));
+
+        rowStore.setValue(2, 1, "Paul");
+
+        assertFalse(rowStore.hasModifiedRows(2));
+        assertTrue(rowStore.hasModifiedRows(3));
+        rowStore.clearModifiedRows();
+        assertFalse(rowStore.hasModifiedRows(rowStore.getNumberOfRows()));
+    }
+
+    @Test
+    public void getRowsWithValue() {
+        CSVRowStore rowStore = this.createRowStore();
+        rowStore.addRow(new String[] { "3", "Peter", "London" });
+
+        assertArrayEquals(new int[] { 1, 3 }, rowStore.getRowsWithValue(1, "Peter"));
+        assertArrayEquals(new int[] { 2 }, rowStore.getRowsWithValue(1, "Wendy"));
+        assertArrayEquals(new int[0], rowStore.getRowsWithValue(1, "Hook"));
+    }
+
+    @Test
+    public void getRowsWithValue_indexIsMaintained() {
+        CSVRowStore rowStore = this.createRowStore();
+        assertArrayEquals(new int[] { 2 }, rowStore.getRowsWithValue(2, "London"));
+
+        rowStore.setValue(1, 2, "London");
+        rowStore.addRow(new String[] { "3", "Hook", "London" });
+        rowStore.asMapList().get(2).put("city", "Paris");
+
+        assertArrayEquals(new int[] { 1, 3 }, rowStore.getRowsWithValue(2, "London"));
+        assertArrayEquals(new int[] { 2 }, rowStore.getRowsWithValue(2, "Paris"));
+        assertArrayEquals(new int[0], rowStore.getRowsWithValue(2, "Neverland"));
+    }
+
+    @Test
+    public void getRowsWithPrefix() {
+        CSVRowStore rowStore = this.createRowStore();
+        rowStore.addRow(new String[] { "3", "Pan", "Karlsruhe" });
+        rowStore.addRow(new String[] { "4", "Pete", "Kassel" });
+
+        assertArrayEquals(new int[] { 1, 3, 4 }, rowStore.getRowsWithPrefix(1, "P"));
+        assertArrayEquals(new int[] { 1, 4 }, rowStore.getRowsWithPrefix(1, "Pete"));
+        assertArrayEquals(new int[0], rowStore.getRowsWithPrefix(1, "Q"));
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, rowStore.getRowsWithPrefix(1, ""));
+    }
+
+    @Test
+    public void getRowsWithPrefix_changesAreConsidered() {
+        CSVRowStore rowStore = this.createRowStore();
+        assertArrayEquals(new int[] { 2 }, rowStore.getRowsWithPrefix(2, "Lon"));
+
+        rowStore.setValue(1, 2, "Londonderry");
+        assertArrayEquals(new int[] { 1, 2 }, rowStore.getRowsWithPrefix(2, "Lon"));
+
+        rowStore.addRow(new String[] { "3", "Hook", "Long Island" });
+        assertArrayEquals(new int[] { 1, 2, 3 }, rowStore.getRowsWithPrefix(2, "Lon"));
+    }
+
+    @Test
+    public void addRow_recordsDecodedOnAccessAreKept() {
+        CSVRowStore rowStore = this.createRowStore();
+        CountingRecord record = new CountingRecord("3", "Hook", "Jolly Roger");
+        rowStore.addRow(record);
+
+        assertEquals("Hook", rowStore.getValue(3, 1));
+        assertEquals(1, record.numberOfDecodedValues);
+        assertEquals(3, rowStore.getRowLength(3));
+
+        rowStore.setValue(3, 2, "Neverland");
+
+        // the changed row is decoded completely and replaced by its values
+        assertEquals(4, record.numberOfDecodedValues);
+        assertArrayEquals(new String[] { "3", "Hook", "Neverland" }, rowStore.getRow(3));
+        assertEquals(4, record.numberOfDecodedValues);
+    }
+
+    private static class CountingRecord implements CSVRecord {
+
+        private final String[] values;
+
+        private int numberOfDecodedValues;
+
+        CountingRecord(String... values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean isDecodedOnAccess() {
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return this.values.length;
+        }
+
+        @Override
+        public String get(int index) {
+            this.numberOfDecodedValues++;
+            return this.values[index];
+        }
+    }
+
+}
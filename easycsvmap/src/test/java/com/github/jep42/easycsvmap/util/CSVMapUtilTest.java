@@ -0,0 +1,40 @@
+package com.github.jep42.easycsvmap.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CSVMapUtilTest {
+
+    @Test
+    public void isValidInteger() {
+        assertTrue(CSVMapUtil.isValidInteger("0"));
+        assertTrue(CSVMapUtil.isValidInteger("4711"));
+        assertTrue(CSVMapUtil.isValidInteger("+42"));
+        assertTrue(CSVMapUtil.isValidInteger("-42"));
+        assertTrue(CSVMapUtil.isValidInteger("2147483647"));
+        assertTrue(CSVMapUtil.isValidInteger("-2147483648"));
+        // leading zeros are accepted by Integer.parseInt regardless of the length
+        assertTrue(CSVMapUtil.isValidInteger("00000000001"));
+        assertTrue(CSVMapUtil.isValidInteger("-0000000002147483648"));
+        assertTrue(CSVMapUtil.isValidInteger("000"));
+    }
+
+    @Test
+    public void isValidInteger_invalid() {
+        assertFalse(CSVMapUtil.isValidInteger(null));
+        assertFalse(CSVMapUtil.isValidInteger(""));
+        assertFalse(CSVMapUtil.isValidInteger("-"));
+        assertFalse(CSVMapUtil.isValidInteger("*"));
+        assertFalse(CSVMapUtil.isValidInteger("aa"));
+        assertFalse(CSVMapUtil.isValidInteger("1.5"));
+        assertFalse(CSVMapUtil.isValidInteger(" 1"));
+        assertFalse(CSVMapUtil.isValidInteger("2147483648"));
+        assertFalse(CSVMapUtil.isValidInteger("-2147483649"));
+        assertFalse(CSVMapUtil.isValidInteger("12345678901"));
+        assertFalse(CSVMapUtil.isValidInteger("0002147483648"));
+        assertFalse(CSVMapUtil.isValidInteger("00000000001a"));
+    }
+
+}
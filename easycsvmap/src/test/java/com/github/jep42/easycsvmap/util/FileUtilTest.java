@@ -1,14 +1,27 @@
 package com.github.jep42.easycsvmap.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.apache.commons.io.ByteOrderMark;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class FileUtilTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void testGetFileUtilFor() throws Exception {
         String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");
@@ -29,4 +42,32 @@ public class FileUtilTest {
         assertNotNull(fileUtilForCsvFile.getContent());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testOpenReader_SkipsByteOrderMark() throws Exception {
+        String csvFilePath = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/no-header-five-lines_UTF-8_BOM.csv");
+
+        FileUtil fileUtilForCsvFile = FileUtil.getFileUtilFor(csvFilePath);
+
+        try (Reader reader = fileUtilForCsvFile.openReader()) {
+            assertEquals(fileUtilForCsvFile.getContent(), IOUtils.toString(reader));
+        }
+    }
+
+    @Test
+    public void testTryReplaceAtomically() throws Exception {
+        Path target = this.tempFolder.newFile("target.csv").toPath();
+        Files.write(target, "old".getBytes(StandardCharsets.UTF_8));
+
+        Path tempFile = FileUtil.getTempSibling(target);
+        assertEquals(target.getParent(), tempFile.getParent());
+        assertFalse(Files.exists(tempFile));
+        Files.write(tempFile, "new".getBytes(StandardCharsets.UTF_8));
+        FileUtil.sync(tempFile);
+
+        assertTrue(FileUtil.tryReplaceAtomically(tempFile, target));
+
+        assertEquals("new", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(tempFile));
+    }
+
+}
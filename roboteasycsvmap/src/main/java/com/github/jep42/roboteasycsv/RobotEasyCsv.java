@@ -1,12 +1,14 @@
 package com.github.jep42.roboteasycsv;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.github.jep42.easycsvmap.EasyCSVMap;
+import com.github.jep42.easycsvmap.ParsedCSVCache;
 import com.github.jep42.easycsvmap.core.CSVContext;
 
 /**
@@ -29,6 +31,7 @@ import com.github.jep42.easycsvmap.core.CSVContext;
  * | ``{2}.name`` | If a header row was specified then columns can be accessed via their names. Hence, this expression would find the value of column 'name' of the third row in the CSV. |
  * | ``{*}.name`` | The row selector supports wildcard, so this expression would select all rows and therefore finds all values of column 'name' |
  * | ``{2,3,4}.name`` | A list of row indexes can be used to select particular rows by index. This expression would select column 'name' of rows with index 2, 3 and 4 |
+ * | ``{0,100-200}.name`` | Row index lists may contain ranges of row indexes (both bounds inclusive). This expression would select column 'name' of the row with index 0 and of all rows with an index from 100 to 200 |
  * | ``{2}.10`` | If no header row was specified then the column has to be selected via its index. Therefore, this expression would find the value of 11th column of the third row in the CSV. |
  * | ``[city=^Ka.*$].name`` | The row selector supports regular expressions to select lines with particular values in particular columns. This expression would select all lines with a value starting with "Ka" in the column name' |
  *
@@ -46,6 +49,7 @@ public class RobotEasyCsv {
     /**
      * Parse a CSV file from the given path and creates a new CSV session object identified by the given Session ID.
      * The Session ID has to be unique and is used in subsequent calls to specify the CSV session.
+     * Parsed files are cached, so parsing an unchanged file again (e.g. for another session) is almost free. Sessions never see changes of other sessions.
      *
      * Arguments:
      * - _sessionId_: unique ID for new CSV session
@@ -57,9 +61,7 @@ public class RobotEasyCsv {
      *
      */
     public void parseCsvFromFile(Integer sessionId, String pathToCsv, int headerLineIndex) {
-        EasyCSVMap easyCSVMap = new EasyCSVMap(headerLineIndex);
-        easyCSVMap.parseCsvFromFile(pathToCsv);
-        this.csvMaps.put(sessionId, easyCSVMap);
+        this.csvMaps.put(sessionId, ParsedCSVCache.parseCsvFromFile(pathToCsv, new CSVContext(headerLineIndex)));
     }
 
     /**
@@ -79,10 +81,9 @@ public class RobotEasyCsv {
      *
      */
     public void parseCsvFromFile(Integer sessionId, String pathToCsv, int headerLineIndex, String columnSeparator, String quoteCharacter, String lineEndEscaped) {
-        EasyCSVMap easyCSVMap = new EasyCSVMap(
-                this.getCsvContext(headerLineIndex, columnSeparator.toCharArray()[0], quoteCharacter.toCharArray()[0], this.removeEscapeCharactersFrom(lineEndEscaped)));
-        easyCSVMap.parseCsvFromFile(pathToCsv);
-        this.csvMaps.put(sessionId, easyCSVMap);
+        CSVContext csvContext = this.getCsvContext(headerLineIndex, columnSeparator.toCharArray()[0], quoteCharacter.toCharArray()[0],
+                this.removeEscapeCharactersFrom(lineEndEscaped));
+        this.csvMaps.put(sessionId, ParsedCSVCache.parseCsvFromFile(pathToCsv, csvContext));
     }
 
     private String removeEscapeCharactersFrom(String lineEndEscaped) {
@@ -125,7 +126,7 @@ public class RobotEasyCsv {
     }
 
     /**
-     * Get the value of the first cell matching the given selector expression.
+     * Get the value of the first cell matching the given selector expression. The rows behind the first matching row are not evaluated.
      *
      * Arguments:
      * - _sessionId_:  ID of a previously created CSV session
@@ -138,13 +139,7 @@ public class RobotEasyCsv {
     public String getFirstCsvValue(Integer sessionId, String selector) {
         this.checkInitialized(sessionId);
 
-        // cannot return Map to robot, so just return the value
-        Iterator<String> it = this.csvMaps.get(sessionId).getValues(selector).values().iterator();
-        if (it.hasNext()) {
-            return it.next();
-        } else {
-            return null;
-        }
+        return this.csvMaps.get(sessionId).getFirstValue(selector);
     }
 
     /**
@@ -165,6 +160,110 @@ public class RobotEasyCsv {
         return new ArrayList<>(this.csvMaps.get(sessionId).getValues(selector).values());
     }
 
+    /**
+     * Count the cells matching the given selector expression without transferring their values.
+     *
+     * Arguments:
+     * - _sessionId_:  ID of a previously created CSV session
+     * - _selector_: a valid CSV selector expression
+     *
+     * Example:
+     * | {failed}= | Count Csv Values | 4711 | [status=^FAILED$].id |
+     *
+     */
+    public int countCsvValues(Integer sessionId, String selector) {
+        this.checkInitialized(sessionId);
+        return this.csvMaps.get(sessionId).count(selector);
+    }
+
+    /**
+     * Check if at least one cell matches the given selector expression. The rows behind the first matching row are not evaluated.
+     *
+     * Arguments:
+     * - _sessionId_:  ID of a previously created CSV session
+     * - _selector_: a valid CSV selector expression
+     *
+     * Example:
+     * | {exists}= | Csv Value Exists | 4711 | [status=^FAILED$].id |
+     *
+     */
+    public boolean csvValueExists(Integer sessionId, String selector) {
+        this.checkInitialized(sessionId);
+        return this.csvMaps.get(sessionId).exists(selector);
+    }
+
+    /**
+     * Get the value of the first cell matching each of the given selector expressions within a single keyword call.
+     * The keyword returns a list with one value per selector in the order of the selectors, the value is empty if a selector does not match any cell.
+     *
+     * Arguments:
+     * - _sessionId_:  ID of a previously created CSV session
+     * - _selectors_: any number of valid CSV selector expressions
+     *
+     * Example:
+     * | @{values}= | Get First Csv Values Batch | 4711 | [id=^4711$].name | [id=^4711$].city | {1}.name |
+     *
+     */
+    public List<String> getFirstCsvValuesBatch(Integer sessionId, String... selectors) {
+        this.checkInitialized(sessionId);
+
+        List<String> firstValues = new ArrayList<>(selectors.length);
+        for (Map<Integer, String> values : this.csvMaps.get(sessionId).getFirstValues(Arrays.asList(selectors), 1)) {
+            Iterator<String> it = values.values().iterator();
+            firstValues.add(it.hasNext() ? it.next() : null);
+        }
+        return firstValues;
+    }
+
+    /**
+     * Get the values of all cells matching each of the given selector expressions within a single keyword call.
+     * The keyword returns a list with one list of values per selector in the order of the selectors.
+     *
+     * Arguments:
+     * - _sessionId_:  ID of a previously created CSV session
+     * - _selectors_: any number of valid CSV selector expressions
+     *
+     * Example:
+     * | @{values}= | Get All Csv Values Batch | 4711 | [city=^Karlsruhe$].name | [city=^Karlsruhe$].street |
+     *
+     */
+    public List<List<String>> getAllCsvValuesBatch(Integer sessionId, String... selectors) {
+        this.checkInitialized(sessionId);
+
+        List<List<String>> allValues = new ArrayList<>(selectors.length);
+        for (Map<Integer, String> values : this.csvMaps.get(sessionId).getValues(Arrays.asList(selectors))) {
+            allValues.add(new ArrayList<>(values.values()));
+        }
+        return allValues;
+    }
+
+    /**
+     * Set the values of the cells matching several selector expressions within a single keyword call. Selectors and values are given
+     * alternately, the values are set in the given order.
+     *
+     * Arguments:
+     * - _sessionId_:  ID of a previously created CSV session
+     * - _selectorsAndValues_: pairs of a valid CSV selector expression and the value to be set
+     *
+     * Example:
+     * | Set Csv Values Batch | 4711 | {1}.name | Peter Pan | {1}.city | Neverland |
+     *
+     */
+    public void setCsvValuesBatch(Integer sessionId, String... selectorsAndValues) {
+        this.checkInitialized(sessionId);
+        if (selectorsAndValues.length % 2 != 0) {
+            throw new RobotCsvException("Selectors and values have to be given in pairs, but " + selectorsAndValues.length + " arguments were given");
+        }
+
+        List<String> selectors = new ArrayList<>(selectorsAndValues.length / 2);
+        List<String> values = new ArrayList<>(selectorsAndValues.length / 2);
+        for (int idx = 0; idx < selectorsAndValues.length; idx += 2) {
+            selectors.add(selectorsAndValues[idx]);
+            values.add(selectorsAndValues[idx + 1]);
+        }
+        this.csvMaps.get(sessionId).setValues(selectors, values);
+    }
+
     /**
      * Save the CSV to file.
      *
@@ -197,6 +296,39 @@ public class RobotEasyCsv {
         this.csvMaps.get(sessionId).addRow(values);
     }
 
+    /**
+     * Get the estimated heap memory in bytes retained by a CSV session, i.e. by its rows and the indexes built for selectors.
+     * The remote server transfers 32 bit integers only, hence the result is limited to 2147483647 bytes.
+     *
+     * Arguments:
+     * - _sessionId_:  ID of a previously created CSV session
+     *
+     * Example:
+     * | {bytes}= | Get Csv Session Memory Usage | 4711 |
+     *
+     */
+    public int getCsvSessionMemoryUsage(Integer sessionId) {
+        this.checkInitialized(sessionId);
+        return (int) Math.min(this.csvMaps.get(sessionId).getRetainedHeapEstimate(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new CSV session as copy of an existing CSV session, e.g. to change a pristine copy of a parsed CSV file without parsing it again.
+     * Cloning is almost free regardless of the size of the CSV, changes of either session are not visible to the other one.
+     *
+     * Arguments:
+     * - _sessionId_:  ID of a previously created CSV session
+     * - _cloneSessionId_: unique ID for the new CSV session
+     *
+     * Example:
+     * | Clone Csv Session | 4711 | 4712 |
+     *
+     */
+    public void cloneCsvSession(Integer sessionId, Integer cloneSessionId) {
+        this.checkInitialized(sessionId);
+        this.csvMaps.put(cloneSessionId, this.csvMaps.get(sessionId).copy());
+    }
+
     /**
      * Removes the CSV session identified by the given session ID.
      *
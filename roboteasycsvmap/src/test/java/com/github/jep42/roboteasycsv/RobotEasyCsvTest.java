@@ -6,10 +6,17 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.io.ByteOrderMark;
+import org.apache.xmlrpc.common.XmlRpcHttpRequestConfigImpl;
+import org.apache.xmlrpc.serializer.I4Serializer;
+import org.apache.xmlrpc.serializer.TypeSerializer;
+import org.apache.xmlrpc.server.XmlRpcServer;
 import org.junit.Test;
+import org.robotframework.remoteserver.xmlrpc.TypeFactory;
+import org.xml.sax.SAXException;
 
 import com.github.jep42.easycsvmap.core.CSVContext;
 import com.github.jep42.easycsvmap.util.FileUtil;
@@ -213,6 +220,80 @@ public class RobotEasyCsvTest {
         assertEquals("Peter", v2);
     }
 
+    @Test
+    public void getCsvSessionMemoryUsage() {
+        RobotEasyCsv easyCsv = new RobotEasyCsv();
+        easyCsv.parseCsvFromFile(1, FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"), 0);
+        int memoryUsage = easyCsv.getCsvSessionMemoryUsage(1);
+
+        easyCsv.addRow(1, "a", "b", "c");
+
+        assertTrue(memoryUsage > 0);
+        assertTrue(easyCsv.getCsvSessionMemoryUsage(1) > memoryUsage);
+    }
+
+    @Test
+    public void getCsvSessionMemoryUsage_isTransferredAsNumber() throws SAXException {
+        RobotEasyCsv easyCsv = new RobotEasyCsv();
+        easyCsv.parseCsvFromFile(1, FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"), 0);
+        Object memoryUsage = easyCsv.getCsvSessionMemoryUsage(1);
+
+        // the remote server transfers all types without a serializer of their own (e.g. Long) as string
+        TypeSerializer serializer = new TypeFactory(new XmlRpcServer()).getSerializer(new XmlRpcHttpRequestConfigImpl(), memoryUsage);
+        assertTrue(serializer instanceof I4Serializer);
+    }
+
+    @Test
+    public void batchKeywords() {
+        RobotEasyCsv easyCsv = new RobotEasyCsv();
+        easyCsv.parseCsvFromFile(1, FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"), 0);
+
+        easyCsv.setCsvValuesBatch(1, "{1}.Col0-Header", "a", "{1}.Col2-Header", "c");
+
+        assertEquals(Arrays.asList("a", "datacol1-line0", "c", null),
+                easyCsv.getFirstCsvValuesBatch(1, "{1}.Col0-Header", "{1}.Col1-Header", "{1}.Col2-Header", "[Col0-Header=^x$].Col0-Header"));
+        assertEquals(Arrays.asList(Arrays.asList("datacol1-line1", "datacol1-line2"), Arrays.asList("datacol2-line1", "datacol2-line2")),
+                easyCsv.getAllCsvValuesBatch(1, "{2,3}.Col1-Header", "{2,3}.Col2-Header"));
+    }
+
+    @Test
+    public void countCsvValuesAndCsvValueExists() {
+        RobotEasyCsv easyCsv = new RobotEasyCsv();
+        easyCsv.parseCsvFromFile(1, FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"), 0);
+
+        assertEquals(5, easyCsv.countCsvValues(1, "[Col0-Header=^datacol0-line.*$].Col1-Header"));
+        assertTrue(easyCsv.csvValueExists(1, "[Col0-Header=datacol0-line4].Col1-Header"));
+        assertFalse(easyCsv.csvValueExists(1, "[Col0-Header=datacol0-line5].Col1-Header"));
+    }
+
+    @Test(expected = RobotCsvException.class)
+    public void setCsvValuesBatch_missingValue() {
+        RobotEasyCsv easyCsv = new RobotEasyCsv();
+        easyCsv.parseCsvFromFile(1, FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"), 0);
+
+        easyCsv.setCsvValuesBatch(1, "{1}.Col0-Header", "a", "{1}.Col2-Header");
+    }
+
+    @Test
+    public void cloneCsvSession() {
+        RobotEasyCsv easyCsv = new RobotEasyCsv();
+        easyCsv.parseCsvFromFile(1, FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv"), 0);
+
+        easyCsv.cloneCsvSession(1, 2);
+        easyCsv.setCsvValues(2, "{1}.Col0-Header", "changed");
+        easyCsv.addRow(1, "a", "b", "c");
+
+        assertEquals("datacol0-line0", easyCsv.getFirstCsvValue(1, "{1}.Col0-Header"));
+        assertEquals("changed", easyCsv.getFirstCsvValue(2, "{1}.Col0-Header"));
+        assertEquals(7, easyCsv.countCsvValues(1, "{*}.Col0-Header"));
+        assertEquals(6, easyCsv.countCsvValues(2, "{*}.Col0-Header"));
+    }
+
+    @Test(expected = RobotCsvException.class)
+    public void cloneCsvSession_NotInitialized() {
+        new RobotEasyCsv().cloneCsvSession(42, 43);
+    }
+
     @Test
     public void removeSession() {
         String csvFilePath1 = FileUtil.getSystemResourcePath("com/github/jep42/easycsvmap/header-0-five-lines.csv");